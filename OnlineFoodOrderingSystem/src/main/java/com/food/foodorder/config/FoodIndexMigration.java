@@ -0,0 +1,54 @@
+package com.food.foodorder.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Drops indexes on foods that no query reads any more.
+ *
+ * Hibernate's schema update only ever adds indexes, so the ones removed from
+ * the Food entity would otherwise stay in the table and slow down every
+ * catalog write. Runs once per startup; indexes already gone are skipped.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class FoodIndexMigration {
+
+    private static final List<String> UNUSED = List.of(
+            "idx_foods_price_id",
+            "idx_foods_category_id",
+            "idx_foods_category_price_id",
+            "idx_foods_category_name_id"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FoodIndexMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+
+        int dropped = 0;
+        for (String index : UNUSED) {
+            Integer present = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() "
+                            + "AND table_name = 'foods' AND index_name = ?",
+                    Integer.class, index);
+            if (present != null && present > 0) {
+                jdbcTemplate.execute("DROP INDEX " + index + " ON foods");
+                dropped++;
+            }
+        }
+
+        if (dropped > 0) {
+            System.out.println("✅ Dropped " + dropped + " unused indexes on foods");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.food.foodorder.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.food.foodorder.entity.IdGenerators;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves tables that used AUTO_INCREMENT ids onto the pooled table generators.
+ *
+ * Runs once per startup, after Hibernate has updated the schema and before
+ * the web server accepts requests. Each segment is raised to at least
+ * max(id) + ALLOCATION_SIZE, so the first block handed out starts above every
+ * existing id; segments already ahead of that are left alone. Existing ids
+ * are never touched.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorMigration {
+
+    // Segment name = table name (see @TableGenerator on each entity)
+    private static final List<String> TABLES = List.of(
+            "foods", "orders", "order_items", "cart_items", "payments", "users"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + IdGenerators.TABLE + " ("
+                + IdGenerators.SEGMENT_COLUMN + " VARCHAR(255) NOT NULL PRIMARY KEY, "
+                + IdGenerators.VALUE_COLUMN + " BIGINT)");
+
+        for (String table : TABLES) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + IdGenerators.TABLE
+                            + " (" + IdGenerators.SEGMENT_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") "
+                            + "SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + table + " "
+                            + "ON DUPLICATE KEY UPDATE " + IdGenerators.VALUE_COLUMN + " = GREATEST("
+                            + IdGenerators.VALUE_COLUMN + ", VALUES(" + IdGenerators.VALUE_COLUMN + "))",
+                    table, IdGenerators.ALLOCATION_SIZE);
+        }
+
+        System.out.println("✅ Id generators aligned for " + TABLES.size() + " tables");
+    }
+}
@@ -1,5 +1,7 @@
 package com.food.foodorder.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,6 +17,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 
 
 import com.food.foodorder.security.JwtAuthFilter;
+import com.food.foodorder.service.IdempotencyService;
 
 @Configuration
 public class SecurityConfig {
@@ -40,6 +43,10 @@ public class SecurityConfig {
             )
             .authorizeHttpRequests(auth -> auth
 
+                // ✅ Async results (order ticket long-polls) are written on a second dispatch
+                //    of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // ✅ PUBLIC APIs
                 .requestMatchers(
                     "/api/users/login",
@@ -52,7 +59,8 @@ public class SecurityConfig {
                     "/api/foods",
                     "/api/foods/**",
                     "/api/products",
-                    "/api/products/**"
+                    "/api/products/**",
+                    "/api/home"
                 ).permitAll()
 
                 // 🔒 CART (must be authenticated)
@@ -62,6 +70,8 @@ public class SecurityConfig {
                 .requestMatchers(
                     "/api/users/**",
                     "/api/orders/place",
+                    "/api/orders/checkout",
+                    "/api/orders/tickets/**",
                     "/api/orders/my",
                     "/api/payment/initiate/**"
                 ).hasAuthority("USER")
@@ -73,7 +83,8 @@ public class SecurityConfig {
                 // ✅ USER + ADMIN (order details - service checks ownership)
                 .requestMatchers(
                     "/api/orders/*",
-                    "/api/orders/*/items"
+                    "/api/orders/*/items",
+                    "/api/orders/*/invoice"
                 ).hasAnyAuthority("USER", "ADMIN")
 
                 // 🔥 FIXED: ADMIN APIs - Both formats work
@@ -105,6 +116,7 @@ public CorsConfigurationSource corsConfigurationSource() {
 
     config.addAllowedHeader("*");
     config.addAllowedMethod("*");
+    config.addExposedHeader(IdempotencyService.REPLAYED_HEADER);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", config);
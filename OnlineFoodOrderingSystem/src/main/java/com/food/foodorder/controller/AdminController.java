@@ -1,14 +1,30 @@
 package com.food.foodorder.controller;
 
 import com.food.foodorder.dto.AdminDashboardResponse;
+import com.food.foodorder.dto.InvoiceArchiveResponse;
+import com.food.foodorder.dto.MailMetricsResponse;
+import com.food.foodorder.dto.OutboxEntryResponse;
 import com.food.foodorder.entity.Order;
 import com.food.foodorder.entity.OrderItem;
 import com.food.foodorder.entity.User;
 import com.food.foodorder.service.AdminDashboardService;
+import com.food.foodorder.service.EmailOutbox;
+import com.food.foodorder.service.InvoiceArchiveService;
+import com.food.foodorder.service.SmtpTransportPool;
 import com.food.foodorder.service.UserService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import com.food.foodorder.service.OrderService;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 
@@ -20,15 +36,24 @@ public class AdminController {
     private final AdminDashboardService dashboardService;
     private final UserService userService;
     private final OrderService orderService;
+    private final EmailOutbox emailOutbox;
+    private final SmtpTransportPool smtpTransportPool;
+    private final InvoiceArchiveService invoiceArchiveService;
 
     public AdminController(
             AdminDashboardService dashboardService,
             UserService userService,
-            OrderService orderService
+            OrderService orderService,
+            EmailOutbox emailOutbox,
+            SmtpTransportPool smtpTransportPool,
+            InvoiceArchiveService invoiceArchiveService
     ) {
         this.dashboardService = dashboardService;
         this.userService = userService;
         this.orderService = orderService;
+        this.emailOutbox = emailOutbox;
+        this.smtpTransportPool = smtpTransportPool;
+        this.invoiceArchiveService = invoiceArchiveService;
     }
 
     // ✅ ADMIN DASHBOARD
@@ -86,5 +111,58 @@ public List<User> getAllUsersWithDetails() {
     return userService.getAllUsersWithDetails();
 }
 
+    // ✅ ADMIN → emails that ran out of retries
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/email-outbox/dead")
+    public List<OutboxEntryResponse> getDeadEmails() {
+        return emailOutbox.deadLetters();
+    }
+
+    // ✅ ADMIN → send a dead email again (fresh retries)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/email-outbox/{id}/retry")
+    public void retryDeadEmail(@PathVariable Long id) {
+        emailOutbox.retry(id);
+    }
+
+    // ✅ ADMIN → SMTP send latency / queue depth
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/mail/metrics")
+    public MailMetricsResponse getMailMetrics() {
+        return smtpTransportPool.metrics();
+    }
+
+    // ✅ ADMIN → start a ZIP of all invoices for a month (?month=2026-09) or range (?from=&to=, to exclusive)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/invoice-archives")
+    public ResponseEntity<InvoiceArchiveResponse> startInvoiceArchive(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (month != null) {
+            from = month.atDay(1);
+            to = month.plusMonths(1).atDay(1);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(invoiceArchiveService.start(from, to));
+    }
+
+    // ✅ ADMIN → archive progress (downloadUrl once DONE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/invoice-archives/{jobId}")
+    public InvoiceArchiveResponse getInvoiceArchive(@PathVariable String jobId) {
+        return invoiceArchiveService.getJob(jobId);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/invoice-archives/{jobId}/download")
+    public ResponseEntity<Resource> downloadInvoiceArchive(@PathVariable String jobId) {
+        Path file = invoiceArchiveService.archiveFile(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
+    }
+
 
 }
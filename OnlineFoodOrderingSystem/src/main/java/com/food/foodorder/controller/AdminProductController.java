@@ -1,11 +1,34 @@
 package com.food.foodorder.controller;
 
+import com.food.foodorder.dto.FoodListResponse;
+import com.food.foodorder.dto.ImportReport;
+import com.food.foodorder.dto.LedgerEntryResponse;
+import com.food.foodorder.dto.PageResponse;
 import com.food.foodorder.entity.Food;
-import com.food.foodorder.repository.FoodRepository;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.service.CatalogExportService;
+import com.food.foodorder.service.CatalogImportService;
+import com.food.foodorder.service.FlashSaleInventory;
+import com.food.foodorder.service.FoodService;
+import com.food.foodorder.service.InventorySlots;
+import com.food.foodorder.service.StockLedger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin/products")
@@ -13,21 +36,51 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminProductController {
 
-    private final FoodRepository foodRepository;
+    private final FoodService foodService;
+    private final CatalogImportService catalogImportService;
+    private final CatalogExportService catalogExportService;
+    private final FlashSaleInventory flashSaleInventory;
+    private final InventorySlots inventorySlots;
+    private final StockLedger stockLedger;
+
+    // A full export can outlive the default async request timeout
+    private final long exportTimeoutMs;
 
-    public AdminProductController(FoodRepository foodRepository) {
-        this.foodRepository = foodRepository;
+    public AdminProductController(FoodService foodService,
+                                  CatalogImportService catalogImportService,
+                                  CatalogExportService catalogExportService,
+                                  FlashSaleInventory flashSaleInventory,
+                                  InventorySlots inventorySlots,
+                                  StockLedger stockLedger,
+                                  @Value("${app.catalog.export.timeout-ms:600000}") long exportTimeoutMs) {
+        this.foodService = foodService;
+        this.catalogImportService = catalogImportService;
+        this.catalogExportService = catalogExportService;
+        this.flashSaleInventory = flashSaleInventory;
+        this.inventorySlots = inventorySlots;
+        this.stockLedger = stockLedger;
+        this.exportTimeoutMs = exportTimeoutMs;
     }
 
     @GetMapping
-    public List<Food> getAllProducts() {
-        return foodRepository.findAll();
+    public List<FoodListResponse> getAllProducts() {
+        return foodService.getAllFoods();
+    }
+
+    @GetMapping("/page")
+    public PageResponse<FoodListResponse> getProductsPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return foodService.getFoodsPage(category, sort, cursor, limit);
     }
 
     @PostMapping
     public Food addProduct(@RequestBody Food food) {
         food.setId(null);
-        return foodRepository.save(food);
+        return foodService.addFood(food);
     }
 
     @PutMapping("/{id}")
@@ -35,21 +88,103 @@ public class AdminProductController {
             @PathVariable Long id,
             @RequestBody Food food
     ) {
-        Food existing = foodRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        return foodService.updateProduct(id, food);
+    }
 
-        existing.setName(food.getName());
-        existing.setPrice(food.getPrice());
-        existing.setStock(food.getStock());
-        existing.setCategory(food.getCategory());
-        existing.setStatus(food.getStatus());
-        existing.setActive(food.isActive());
+    // ✅ Bulk import, streamed: NDJSON (one product per line) or CSV with a header row.
+    //    Upserts by name; format from ?format= or the Content-Type (text/csv → csv).
+    @PostMapping("/import")
+    public ImportReport importProducts(
+            InputStream body,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = "Content-Type", required = false) String contentType
+    ) {
+        if (format == null) {
+            format = contentType != null && contentType.toLowerCase().contains("csv") ? "csv" : "ndjson";
+        }
+        return catalogImportService.importFeed(body, format);
+    }
+
+    // ✅ Full catalog export, streamed from a DB cursor (?format=csv|ndjson&gzip=true)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request
+    ) {
+        if (!CatalogExportService.isSupported(format)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+
+        String extension = format.toLowerCase();
+        MediaType type = "csv".equals(extension)
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+        if (gzip) {
+            extension += ".gz";
+            type = MediaType.parseMediaType("application/gzip");
+        }
+
+        StreamingResponseBody body = out -> catalogExportService.export(out, format, gzip);
+
+        // Longer timeout for this request only (the streaming starts with whatever is set here)
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(exportTimeoutMs);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + extension + "\"")
+                .body(body);
+    }
 
-        return foodRepository.save(existing);
+    // ✅ Flash-sale mode: stock for hot products served from in-memory counters (foodId → units left)
+    @GetMapping("/flash-sale")
+    public Map<Long, Long> getFlashSaleCounters() {
+        return flashSaleInventory.getCounters();
+    }
+
+    // ✅ Turn flash-sale mode on; calling it again reloads the counter from the database
+    @PostMapping("/{id}/flash-sale")
+    public Map<String, Object> enableFlashSale(@PathVariable Long id) {
+        long available = flashSaleInventory.enable(id);
+        return Map.of("foodId", id, "available", available);
+    }
+
+    @DeleteMapping("/{id}/flash-sale")
+    public void disableFlashSale(@PathVariable Long id) {
+        flashSaleInventory.disable(id);
+    }
+
+    // ✅ Split a hot product's stock over more rows so concurrent checkouts lock different slots
+    @PutMapping("/{id}/stock-slots")
+    public Map<String, Object> setStockSlots(@PathVariable Long id, @RequestParam int count) {
+        long stock = inventorySlots.reshard(id, count);
+        return Map.of("foodId", id, "slots", count, "stock", stock);
+    }
+
+    // ✅ Stock movements (orders, holds, edits, imports), newest first
+    @GetMapping("/{id}/ledger")
+    public List<LedgerEntryResponse> getStockLedger(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return stockLedger.recentEntries(id, limit);
+    }
+
+    // ✅ Stock as of a point in time (?at=2026-01-31T18:00:00), now when omitted
+    @GetMapping("/{id}/stock")
+    public Map<String, Object> getStockAt(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        LocalDateTime asOf = at != null ? at : LocalDateTime.now();
+        return Map.of("foodId", id, "at", asOf, "stock", stockLedger.stockAt(id, asOf));
     }
 
     @DeleteMapping("/{id}")
     public void deleteProduct(@PathVariable Long id) {
-        foodRepository.deleteById(id);
+        foodService.deleteFood(id);
     }
 }
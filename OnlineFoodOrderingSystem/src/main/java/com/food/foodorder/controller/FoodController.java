@@ -1,10 +1,20 @@
 package com.food.foodorder.controller;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.food.foodorder.dto.BatchResponse;
+import com.food.foodorder.dto.FacetResponse;
+import com.food.foodorder.dto.FoodCardResponse;
+import com.food.foodorder.dto.FoodDetailResponse;
+import com.food.foodorder.dto.FoodListResponse;
+import com.food.foodorder.dto.PageResponse;
+import com.food.foodorder.dto.SuggestionResponse;
 import com.food.foodorder.entity.Food;
 import com.food.foodorder.service.FoodService;
 
@@ -18,32 +28,89 @@ public class FoodController {
 
     // ✅ Get all foods (REST-ful endpoint)
     @GetMapping
-    public List<Food> getFoods() {
+    public List<FoodListResponse> getFoods() {
         return foodService.getAllFoods();
     }
 
+    // ✅ Multi-get: /api/foods?ids=1,2,3 (request order kept, unknown ids in missingIds)
+    @GetMapping(params = "ids")
+    public BatchResponse<FoodCardResponse> getFoodsByIds(@RequestParam List<Long> ids) {
+        return foodService.getFoodsByIds(ids);
+    }
+
+    // ✅ Multi-get for long id lists: POST /api/foods/batch with [1, 2, 3]
+    @PostMapping("/batch")
+    public BatchResponse<FoodCardResponse> getFoodsBatch(@RequestBody List<Long> ids) {
+        return foodService.getFoodsByIds(ids);
+    }
+
     // ✅ Get all foods (alternative endpoint)
     @GetMapping("/all")
-    public List<Food> getAllFoods() {
+    public List<FoodListResponse> getAllFoods() {
         return foodService.getAllFoods();
     }
 
+    // ✅ Keyset-paginated listing (?sort=price&limit=20, then ?cursor=<nextCursor>)
+    @GetMapping("/page")
+    public PageResponse<FoodListResponse> getFoodsPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return foodService.getFoodsPage(category, sort, cursor, limit);
+    }
+
+    // ✅ Faceted filter (?category=Fruits,Dairy&status=AVAILABLE&active=true&inStock=true),
+    //    page with ?afterId=<nextAfterId>; facet counts come back with the items
+    @GetMapping("/facets")
+    public FacetResponse filterFoods(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return foodService.filterFoods(category, status, active, inStock, afterId, limit);
+    }
+
     // ✅ Get food by id
     @GetMapping("/{id}")
-    public Food getFoodById(@PathVariable Long id) {
+    public FoodDetailResponse getFoodById(@PathVariable Long id) {
         return foodService.getFoodById(id);
     }
 
     // ✅ Get foods by category
     @GetMapping("/category/{category}")
-    public List<Food> getFoodsByCategory(@PathVariable String category) {
+    public List<FoodListResponse> getFoodsByCategory(@PathVariable String category) {
         return foodService.getFoodByCategory(category);
     }
 
-    // ✅ Search foods
+    // ✅ Keyset-paginated foods by category
+    @GetMapping("/category/{category}/page")
+    public PageResponse<FoodListResponse> getFoodsByCategoryPage(
+            @PathVariable String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return foodService.getFoodsPage(category, sort, cursor, limit);
+    }
+
+    // ✅ Search foods (fuzzy=true also matches misspellings, exact hits first)
     @GetMapping("/search")
-    public List<Food> searchFoods(@RequestParam String q) {
-        return foodService.searchFoods(q);
+    public List<FoodCardResponse> searchFoods(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        return foodService.searchFoods(q, fuzzy);
+    }
+
+    // ✅ Autocomplete (tiny, cacheable payload for the search box)
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(foodService.suggest(prefix, limit));
     }
 
     // ✅ Add single food
@@ -0,0 +1,33 @@
+package com.food.foodorder.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.food.foodorder.dto.HomeFeedResponse;
+import com.food.foodorder.service.HomeFeedService;
+
+@RestController
+@RequestMapping("/api/home")
+@CrossOrigin(origins = "*")
+public class HomeController {
+
+    private final HomeFeedService homeFeedService;
+
+    public HomeController(HomeFeedService homeFeedService) {
+        this.homeFeedService = homeFeedService;
+    }
+
+    // ✅ Categories + banners + best sellers per category in one cacheable response
+    @GetMapping
+    public ResponseEntity<HomeFeedResponse> getHomeFeed() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic())
+                .body(homeFeedService.getHomeFeed());
+    }
+}
@@ -2,11 +2,27 @@ package com.food.foodorder.controller;
 
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.food.foodorder.dto.CheckoutHoldResponse;
+import com.food.foodorder.dto.OrderTicketResponse;
 import com.food.foodorder.dto.PlaceOrderRequest;
 import com.food.foodorder.entity.Order;
 import com.food.foodorder.entity.OrderItem;
+import com.food.foodorder.service.IdempotencyService;
+import com.food.foodorder.service.InventoryHoldService;
+import com.food.foodorder.service.InvoiceService;
+import com.food.foodorder.service.OrderIntakeQueue;
 import com.food.foodorder.service.OrderService;
 
 @RestController
@@ -17,6 +33,21 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private InventoryHoldService inventoryHoldService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderIntakeQueue orderIntakeQueue;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    // Longest a ticket poll may wait for the order to be placed
+    private static final int MAX_TICKET_WAIT_SECONDS = 30;
+
     private boolean isAdmin(Authentication authentication) {
         return authentication != null
                 && authentication.getAuthorities() != null
@@ -24,13 +55,79 @@ public class OrderController {
                     .anyMatch(a -> "ADMIN".equals(a.getAuthority()));
     }
 
-    // ✅ PLACE ORDER
+    // ✅ PLACE ORDER (a retry with the same Idempotency-Key gets the first order back)
     @PostMapping("/place")
-    public Order placeOrder(@RequestBody PlaceOrderRequest request, Authentication authentication) {
+    public ResponseEntity<Object> placeOrder(
+            @RequestBody PlaceOrderRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        if (authentication == null) {
+            throw new RuntimeException("Authentication required");
+        }
+        // Same key + different address or cart = different request. An empty cart was most likely
+        // used up by the first attempt, so there is nothing left to compare (null = replay)
+        String cart = idempotencyKey == null ? null : orderService.cartFingerprint(authentication.getName());
+        String fingerprint = cart == null ? null : request.getDeliveryAddress() + "|" + cart;
+
+        // ✅ Async intake on → 202 + ticket, the order is placed by the intake workers
+        //    (replayed only while the ticket can still be polled)
+        if (orderIntakeQueue.isEnabled()) {
+            return idempotencyService.execute("orders.place", authentication.getName(), idempotencyKey,
+                    fingerprint, HttpStatus.ACCEPTED, orderIntakeQueue.getTicketRetentionSeconds(),
+                    () -> orderIntakeQueue.submit(authentication.getName(), request));
+        }
+        return idempotencyService.execute("orders.place", authentication.getName(), idempotencyKey,
+                fingerprint,
+                () -> orderService.placeOrder(authentication.getName(), request));
+    }
+
+    // ✅ Queued order result; waitSeconds > 0 holds the poll until it is PLACED/FAILED (or the wait ends)
+    @GetMapping("/tickets/{ticketId}")
+    public DeferredResult<OrderTicketResponse> getOrderTicket(
+            @PathVariable String ticketId,
+            @RequestParam(defaultValue = "0") int waitSeconds,
+            Authentication authentication) {
+        if (authentication == null) {
+            throw new RuntimeException("Authentication required");
+        }
+        String email = authentication.getName();
+        OrderTicketResponse current = orderIntakeQueue.getTicket(ticketId, email);
+
+        int wait = Math.max(0, Math.min(waitSeconds, MAX_TICKET_WAIT_SECONDS));
+        DeferredResult<OrderTicketResponse> result = new DeferredResult<>(
+                wait * 1000L, () -> orderIntakeQueue.getTicket(ticketId, email));
+        if (wait == 0) {
+            result.setResult(current);
+        } else {
+            orderIntakeQueue.awaitTicket(ticketId, email).thenAccept(result::setResult);
+        }
+        return result;
+    }
+
+    // ✅ START CHECKOUT → hold cart stock for a while (replaces an earlier hold)
+    @PostMapping("/checkout")
+    public CheckoutHoldResponse startCheckout(Authentication authentication) {
         if (authentication == null) {
             throw new RuntimeException("Authentication required");
         }
-        return orderService.placeOrder(authentication.getName(), request);
+        return inventoryHoldService.startCheckout(authentication.getName());
+    }
+
+    @GetMapping("/checkout")
+    public CheckoutHoldResponse getCheckoutHold(Authentication authentication) {
+        if (authentication == null) {
+            throw new RuntimeException("Authentication required");
+        }
+        return inventoryHoldService.getHold(authentication.getName());
+    }
+
+    // ✅ Checkout abandoned → give the held stock back
+    @DeleteMapping("/checkout")
+    public void cancelCheckout(Authentication authentication) {
+        if (authentication == null) {
+            throw new RuntimeException("Authentication required");
+        }
+        inventoryHoldService.cancel(authentication.getName());
     }
 
     // ✅ USER → My Orders
@@ -64,6 +161,32 @@ public class OrderController {
         return orderService.getOrderItemsSecure(orderId, authentication.getName());
     }
 
+    // ✅ USER/ADMIN → Invoice PDF (stored file, rendered only when the order changed)
+    @GetMapping("/{orderId}/invoice")
+    public ResponseEntity<Resource> downloadInvoice(
+            @PathVariable Long orderId,
+            Authentication authentication,
+            WebRequest webRequest) {
+        if (authentication == null) {
+            throw new RuntimeException("Unauthorized");
+        }
+        // Throws "Order not found" for someone else's order
+        orderService.getOrderByIdSecure(orderId, authentication.getName(), isAdmin(authentication));
+
+        InvoiceService.StoredInvoice invoice = invoiceService.invoiceFor(orderId);
+        String etag = "\"" + invoice.getHash() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(invoice.getFileName()).build().toString())
+                .body(new FileSystemResource(invoice.getFile()));
+    }
+
     // ✅ ADMIN → Update Status (ORIGINAL format: /status/58)
    @PutMapping("/{orderId}/status")
 public Order updateOrderStatus(
@@ -6,6 +6,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.food.foodorder.entity.Payment;
+import com.food.foodorder.service.IdempotencyService;
 import com.food.foodorder.service.PaymentService;
 
 @RestController
@@ -16,6 +17,9 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     // USER → INITIATE PAYMENT
     @PostMapping("/initiate/{orderId}")
     public Payment initiatePayment(
@@ -26,13 +30,18 @@ public class PaymentController {
         return paymentService.initiatePayment(orderId, email);
     }
 
-    // MOCK PAYMENT RESULT
+    // MOCK PAYMENT RESULT (a retry with the same Idempotency-Key gets the first result back)
     @PutMapping("/complete/{orderId}")
-    public Payment completePayment(
+    public ResponseEntity<Object> completePayment(
             @PathVariable Long orderId,
-            @RequestParam String status) {
+            @RequestParam String status,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
 
-        return paymentService.completePayment(orderId, status);
+        // Unauthenticated calls have no owner and are never replayed
+        String caller = authentication != null ? authentication.getName() : null;
+        return idempotencyService.execute("payment.complete:" + orderId, caller, idempotencyKey, status,
+                () -> paymentService.completePayment(orderId, status));
     }
     @GetMapping("/status/{orderId}")
     public Payment getPaymentStatus(@PathVariable Long orderId) {
@@ -5,25 +5,35 @@ import java.util.List;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.food.foodorder.entity.Food;
-import com.food.foodorder.repository.FoodRepository;
+import com.food.foodorder.dto.FoodListResponse;
+import com.food.foodorder.dto.PageResponse;
+import com.food.foodorder.service.FoodService;
 
 @RestController
 @RequestMapping("/products")
 @CrossOrigin("*")
 public class ProductController {
 
-    private final FoodRepository foodRepository;
+    private final FoodService foodService;
 
-    public ProductController(FoodRepository foodRepository) {
-        this.foodRepository = foodRepository;
+    public ProductController(FoodService foodService) {
+        this.foodService = foodService;
     }
 
     @GetMapping
-    public List<Food> getProducts() {
-        return foodRepository.findAll();
+    public List<FoodListResponse> getProducts() {
+        return foodService.getAllFoods();
     }
-}
 
+    @GetMapping("/page")
+    public PageResponse<FoodListResponse> getProductsPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return foodService.getFoodsPage(category, sort, cursor, limit);
+    }
+}
@@ -0,0 +1,18 @@
+package com.food.foodorder.dto;
+
+import java.util.List;
+
+public class BatchResponse<T> {
+
+    private final List<T> items;            // in request order, duplicates collapsed
+    private final List<Long> missingIds;    // requested ids that do not exist
+
+    public BatchResponse(List<T> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    // getters only (no setters needed)
+    public List<T> getItems() { return items; }
+    public List<Long> getMissingIds() { return missingIds; }
+}
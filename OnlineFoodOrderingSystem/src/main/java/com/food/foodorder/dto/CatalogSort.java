@@ -0,0 +1,33 @@
+package com.food.foodorder.dto;
+
+import com.food.foodorder.exception.BadRequestException;
+
+/**
+ * Stable listing orders. Every order ends with the product id as a tie-breaker
+ * (descending for PRICE_DESC and NEWEST, ascending otherwise), so a (sort value, id)
+ * pair identifies a unique position for keyset cursors.
+ */
+public enum CatalogSort {
+    ID,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME,
+    POPULARITY,
+    NEWEST;
+
+    // Accepts "price_desc", "PRICE-DESC", "price" (= PRICE_ASC), ...
+    public static CatalogSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        String normalized = value.trim().toUpperCase().replace('-', '_');
+        if ("PRICE".equals(normalized)) {
+            return PRICE_ASC;
+        }
+        try {
+            return valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sort: " + value);
+        }
+    }
+}
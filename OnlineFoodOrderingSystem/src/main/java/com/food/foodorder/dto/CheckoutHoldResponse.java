@@ -0,0 +1,22 @@
+package com.food.foodorder.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class CheckoutHoldResponse {
+
+    private final String holdId;
+    private final LocalDateTime expiresAt;   // stock goes back to the shelf after this
+    private final Map<Long, Long> items;     // foodId → units held
+
+    public CheckoutHoldResponse(String holdId, LocalDateTime expiresAt, Map<Long, Long> items) {
+        this.holdId = holdId;
+        this.expiresAt = expiresAt;
+        this.items = items;
+    }
+
+    // getters only (no setters needed)
+    public String getHoldId() { return holdId; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public Map<Long, Long> getItems() { return items; }
+}
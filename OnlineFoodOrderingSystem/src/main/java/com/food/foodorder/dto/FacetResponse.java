@@ -0,0 +1,32 @@
+package com.food.foodorder.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetResponse {
+
+    private final List<FoodListResponse> items;
+    private final long total;
+    private final Long nextAfterId;     // null on the last page
+    private final int limit;
+
+    // facet -> value -> matching products (ignoring that facet's own filter)
+    private final Map<String, Map<String, Long>> facets;
+
+    public FacetResponse(List<FoodListResponse> items, long total, Long nextAfterId, int limit,
+                         Map<String, Map<String, Long>> facets) {
+        this.items = items;
+        this.total = total;
+        this.nextAfterId = nextAfterId;
+        this.limit = limit;
+        this.facets = facets;
+    }
+
+    // getters only (no setters needed)
+    public List<FoodListResponse> getItems() { return items; }
+    public long getTotal() { return total; }
+    public Long getNextAfterId() { return nextAfterId; }
+    public boolean isHasMore() { return nextAfterId != null; }
+    public int getLimit() { return limit; }
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+}
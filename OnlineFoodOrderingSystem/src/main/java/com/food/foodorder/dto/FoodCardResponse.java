@@ -0,0 +1,38 @@
+package com.food.foodorder.dto;
+
+import com.food.foodorder.entity.Food;
+
+/**
+ * Product tile: what a card in a grid, carousel or cart line needs.
+ */
+public class FoodCardResponse {
+
+    private final Long id;
+    private final String name;
+    private final Double price;
+    private final String imageUrl;
+    private final String category;
+    private final long stock;
+
+    public FoodCardResponse(Long id, String name, Double price, String imageUrl, String category, long stock) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.category = category;
+        this.stock = stock;
+    }
+
+    public static FoodCardResponse from(Food food) {
+        return new FoodCardResponse(food.getId(), food.getName(), food.getPrice(),
+                food.getImageUrl(), food.getCategory(), food.getStock());
+    }
+
+    // getters only (no setters needed)
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public Double getPrice() { return price; }
+    public String getImageUrl() { return imageUrl; }
+    public String getCategory() { return category; }
+    public long getStock() { return stock; }
+}
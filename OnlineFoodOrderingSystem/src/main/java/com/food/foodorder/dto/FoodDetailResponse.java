@@ -0,0 +1,25 @@
+package com.food.foodorder.dto;
+
+import com.food.foodorder.entity.Food;
+
+/**
+ * Product page: every listing field plus the description.
+ */
+public class FoodDetailResponse extends FoodListResponse {
+
+    private final String description;
+
+    public FoodDetailResponse(Long id, String name, Double price, String imageUrl, String category,
+                              long stock, String status, Boolean active, String description) {
+        super(id, name, price, imageUrl, category, stock, status, active);
+        this.description = description;
+    }
+
+    public static FoodDetailResponse from(Food food) {
+        return new FoodDetailResponse(food.getId(), food.getName(), food.getPrice(), food.getImageUrl(),
+                food.getCategory(), food.getStock(), food.getStatus(), food.isActive(), food.getDescription());
+    }
+
+    // getters only (no setters needed)
+    public String getDescription() { return description; }
+}
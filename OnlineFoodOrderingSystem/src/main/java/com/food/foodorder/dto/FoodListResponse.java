@@ -0,0 +1,29 @@
+package com.food.foodorder.dto;
+
+import com.food.foodorder.entity.Food;
+
+/**
+ * Listing row: card fields plus the flags listings filter on.
+ * Also the target of the constructor projections in FoodRepository.
+ */
+public class FoodListResponse extends FoodCardResponse {
+
+    private final String status;
+    private final Boolean active;
+
+    public FoodListResponse(Long id, String name, Double price, String imageUrl, String category,
+                            long stock, String status, Boolean active) {
+        super(id, name, price, imageUrl, category, stock);
+        this.status = status;
+        this.active = active;
+    }
+
+    public static FoodListResponse from(Food food) {
+        return new FoodListResponse(food.getId(), food.getName(), food.getPrice(), food.getImageUrl(),
+                food.getCategory(), food.getStock(), food.getStatus(), food.isActive());
+    }
+
+    // getters only (no setters needed)
+    public String getStatus() { return status; }
+    public Boolean getActive() { return active; }
+}
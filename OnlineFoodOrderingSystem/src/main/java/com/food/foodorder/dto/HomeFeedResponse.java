@@ -0,0 +1,67 @@
+package com.food.foodorder.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.food.foodorder.entity.Category;
+
+public class HomeFeedResponse {
+
+    private final List<Category> categories;
+    private final List<Banner> banners;
+    private final List<Section> sections;
+    private final long catalogVersion;
+    private final LocalDateTime generatedAt;
+
+    public static class Banner {
+        private final Long id;
+        private final String image;
+        private final String title;
+        private final String subtitle;
+
+        public Banner(Long id, String image, String title, String subtitle) {
+            this.id = id;
+            this.image = image;
+            this.title = title;
+            this.subtitle = subtitle;
+        }
+
+        public Long getId() { return id; }
+        public String getImage() { return image; }
+        public String getTitle() { return title; }
+        public String getSubtitle() { return subtitle; }
+    }
+
+    // Best sellers of one active category
+    public static class Section {
+        private final Long categoryId;
+        private final String category;
+        private final List<FoodCardResponse> products;
+
+        public Section(Long categoryId, String category, List<FoodCardResponse> products) {
+            this.categoryId = categoryId;
+            this.category = category;
+            this.products = products;
+        }
+
+        public Long getCategoryId() { return categoryId; }
+        public String getCategory() { return category; }
+        public List<FoodCardResponse> getProducts() { return products; }
+    }
+
+    public HomeFeedResponse(List<Category> categories, List<Banner> banners, List<Section> sections,
+                            long catalogVersion, LocalDateTime generatedAt) {
+        this.categories = categories;
+        this.banners = banners;
+        this.sections = sections;
+        this.catalogVersion = catalogVersion;
+        this.generatedAt = generatedAt;
+    }
+
+    // getters only (no setters needed)
+    public List<Category> getCategories() { return categories; }
+    public List<Banner> getBanners() { return banners; }
+    public List<Section> getSections() { return sections; }
+    public long getCatalogVersion() { return catalogVersion; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+}
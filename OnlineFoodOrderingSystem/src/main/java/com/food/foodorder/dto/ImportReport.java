@@ -0,0 +1,37 @@
+package com.food.foodorder.dto;
+
+import java.util.List;
+
+public class ImportReport {
+
+    private final long processed;
+    private final long inserted;
+    private final long updated;
+    private final long failed;
+    private final List<RowError> errors;     // first failures only, see failed for the total
+
+    public static class RowError {
+        public final long row;          // 1-based data row (header not counted)
+        public final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+    }
+
+    public ImportReport(long processed, long inserted, long updated, long failed, List<RowError> errors) {
+        this.processed = processed;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    // getters only (no setters needed)
+    public long getProcessed() { return processed; }
+    public long getInserted() { return inserted; }
+    public long getUpdated() { return updated; }
+    public long getFailed() { return failed; }
+    public List<RowError> getErrors() { return errors; }
+}
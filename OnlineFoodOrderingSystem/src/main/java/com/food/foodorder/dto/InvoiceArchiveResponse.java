@@ -0,0 +1,49 @@
+package com.food.foodorder.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class InvoiceArchiveResponse {
+
+    private final String jobId;
+    private final String status;            // RUNNING, DONE or FAILED
+    private final LocalDate from;           // inclusive
+    private final LocalDate to;             // exclusive
+    private final long totalOrders;
+    private final long processedOrders;
+    private final long failedOrders;        // left out of the ZIP (render failed)
+    private final String downloadUrl;       // set once DONE
+    private final String error;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+
+    public InvoiceArchiveResponse(String jobId, String status, LocalDate from, LocalDate to,
+                                  long totalOrders, long processedOrders, long failedOrders,
+                                  String downloadUrl, String error,
+                                  LocalDateTime startedAt, LocalDateTime finishedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.from = from;
+        this.to = to;
+        this.totalOrders = totalOrders;
+        this.processedOrders = processedOrders;
+        this.failedOrders = failedOrders;
+        this.downloadUrl = downloadUrl;
+        this.error = error;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    // getters only (no setters needed)
+    public String getJobId() { return jobId; }
+    public String getStatus() { return status; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public long getTotalOrders() { return totalOrders; }
+    public long getProcessedOrders() { return processedOrders; }
+    public long getFailedOrders() { return failedOrders; }
+    public String getDownloadUrl() { return downloadUrl; }
+    public String getError() { return error; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
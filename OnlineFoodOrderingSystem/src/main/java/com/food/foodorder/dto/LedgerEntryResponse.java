@@ -0,0 +1,24 @@
+package com.food.foodorder.dto;
+
+import java.time.LocalDateTime;
+
+public class LedgerEntryResponse {
+
+    private final long id;
+    private final long delta;           // signed: negative = stock out
+    private final String reason;        // see StockMovement
+    private final LocalDateTime createdAt;
+
+    public LedgerEntryResponse(long id, long delta, String reason, LocalDateTime createdAt) {
+        this.id = id;
+        this.delta = delta;
+        this.reason = reason;
+        this.createdAt = createdAt;
+    }
+
+    // getters only (no setters needed)
+    public long getId() { return id; }
+    public long getDelta() { return delta; }
+    public String getReason() { return reason; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
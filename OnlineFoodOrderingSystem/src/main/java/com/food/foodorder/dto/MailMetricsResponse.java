@@ -0,0 +1,42 @@
+package com.food.foodorder.dto;
+
+public class MailMetricsResponse {
+
+    private final long sent;
+    private final long failed;
+    private final int queueDepth;            // messages waiting for a connection
+    private final int connections;
+    private final long connects;             // SMTP handshakes (connect + STARTTLS + AUTH) so far
+    private final long batches;
+    private final double avgBatchSize;
+    private final double avgSendMillis;      // on the wire, per message
+    private final double maxSendMillis;
+    private final double avgQueueWaitMillis;
+
+    public MailMetricsResponse(long sent, long failed, int queueDepth, int connections, long connects,
+                               long batches, double avgBatchSize, double avgSendMillis,
+                               double maxSendMillis, double avgQueueWaitMillis) {
+        this.sent = sent;
+        this.failed = failed;
+        this.queueDepth = queueDepth;
+        this.connections = connections;
+        this.connects = connects;
+        this.batches = batches;
+        this.avgBatchSize = avgBatchSize;
+        this.avgSendMillis = avgSendMillis;
+        this.maxSendMillis = maxSendMillis;
+        this.avgQueueWaitMillis = avgQueueWaitMillis;
+    }
+
+    // getters only (no setters needed)
+    public long getSent() { return sent; }
+    public long getFailed() { return failed; }
+    public int getQueueDepth() { return queueDepth; }
+    public int getConnections() { return connections; }
+    public long getConnects() { return connects; }
+    public long getBatches() { return batches; }
+    public double getAvgBatchSize() { return avgBatchSize; }
+    public double getAvgSendMillis() { return avgSendMillis; }
+    public double getMaxSendMillis() { return maxSendMillis; }
+    public double getAvgQueueWaitMillis() { return avgQueueWaitMillis; }
+}
@@ -0,0 +1,27 @@
+package com.food.foodorder.dto;
+
+import java.time.LocalDateTime;
+
+public class OrderTicketResponse {
+
+    private final String ticketId;
+    private final String status;            // QUEUED, PROCESSING, PLACED or FAILED
+    private final Long orderId;             // set once PLACED
+    private final String error;             // set once FAILED
+    private final LocalDateTime createdAt;
+
+    public OrderTicketResponse(String ticketId, String status, Long orderId, String error, LocalDateTime createdAt) {
+        this.ticketId = ticketId;
+        this.status = status;
+        this.orderId = orderId;
+        this.error = error;
+        this.createdAt = createdAt;
+    }
+
+    // getters only (no setters needed)
+    public String getTicketId() { return ticketId; }
+    public String getStatus() { return status; }
+    public Long getOrderId() { return orderId; }
+    public String getError() { return error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
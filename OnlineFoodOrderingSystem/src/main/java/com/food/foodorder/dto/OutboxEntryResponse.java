@@ -0,0 +1,34 @@
+package com.food.foodorder.dto;
+
+import java.time.LocalDateTime;
+
+public class OutboxEntryResponse {
+
+    private final long id;
+    private final String kind;          // ORDER_PLACED or STATUS_UPDATE
+    private final long orderId;
+    private final String recipient;
+    private final int attempts;
+    private final String lastError;
+    private final LocalDateTime createdAt;
+
+    public OutboxEntryResponse(long id, String kind, long orderId, String recipient,
+                               int attempts, String lastError, LocalDateTime createdAt) {
+        this.id = id;
+        this.kind = kind;
+        this.orderId = orderId;
+        this.recipient = recipient;
+        this.attempts = attempts;
+        this.lastError = lastError;
+        this.createdAt = createdAt;
+    }
+
+    // getters only (no setters needed)
+    public long getId() { return id; }
+    public String getKind() { return kind; }
+    public long getOrderId() { return orderId; }
+    public String getRecipient() { return recipient; }
+    public int getAttempts() { return attempts; }
+    public String getLastError() { return lastError; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,25 @@
+package com.food.foodorder.dto;
+
+import java.util.List;
+
+public class PageResponse<T> {
+
+    private final List<T> items;
+    private final String nextCursor;    // null on the last page
+    private final int limit;
+    private final String sort;
+
+    public PageResponse(List<T> items, String nextCursor, int limit, String sort) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+        this.sort = sort;
+    }
+
+    // getters only (no setters needed)
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+    public int getLimit() { return limit; }
+    public String getSort() { return sort; }
+}
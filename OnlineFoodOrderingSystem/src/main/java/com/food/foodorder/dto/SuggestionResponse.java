@@ -0,0 +1,22 @@
+package com.food.foodorder.dto;
+
+public class SuggestionResponse {
+
+    private final String text;
+    private final String type;          // PRODUCT or CATEGORY
+    private final Long productId;       // null for categories
+    private final String imageUrl;
+
+    public SuggestionResponse(String text, String type, Long productId, String imageUrl) {
+        this.text = text;
+        this.type = type;
+        this.productId = productId;
+        this.imageUrl = imageUrl;
+    }
+
+    // getters only (shared, immutable instances)
+    public String getText() { return text; }
+    public String getType() { return type; }
+    public Long getProductId() { return productId; }
+    public String getImageUrl() { return imageUrl; }
+}
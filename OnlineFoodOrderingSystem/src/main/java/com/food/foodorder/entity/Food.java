@@ -1,13 +1,32 @@
 package com.food.foodorder.entity;
 
+import org.hibernate.annotations.Formula;
+
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "foods")
+@Table(
+    name = "foods",
+    // Keyset pagination: (sort column, id) for the orders read from the database
+    // (price and popularity pages come from the catalog snapshot)
+    indexes = {
+        @Index(name = "idx_foods_name_id", columnList = "name, id"),
+        @Index(name = "idx_foods_category_key_id", columnList = "category_key, id"),
+        @Index(name = "idx_foods_category_key_name_id", columnList = "category_key, name, id")
+    }
+)
 public class Food {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "foods_id")
+    @TableGenerator(
+            name = "foods_id",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "foods",
+            allocationSize = IdGenerators.ALLOCATION_SIZE
+    )
     private Long id;
 
     private String name;
@@ -24,8 +43,15 @@ public class Food {
     private Double price;
     
     private String category;
+
+    // Trimmed, lower-cased category, computed by MySQL on every write (category filters compare it as-is)
+    @Column(name = "category_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(TRIM(category))) STORED")
+    private String categoryKey;
 //    private String imageUrl;
     
+    // Sum of the product's inventory_slots rows (read-only here, written through InventorySlots)
+    @Formula("(SELECT COALESCE(SUM(s.stock), 0) FROM inventory_slots s WHERE s.food_id = id)")
     private long stock;
 
     @Column(nullable = false)
@@ -0,0 +1,21 @@
+package com.food.foodorder.entity;
+
+/**
+ * Shared settings for the pooled table id generators.
+ *
+ * Each entity draws ids in blocks of ALLOCATION_SIZE from its own row in
+ * id_generators (segment = table name), so Hibernate knows ids before the
+ * INSERT and can batch inserts. A stored value V means every id up to
+ * V - ALLOCATION_SIZE has been handed out; the next block is
+ * (V - ALLOCATION_SIZE, V].
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -12,7 +12,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(
+            name = "orders_id",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "orders",
+            allocationSize = IdGenerators.ALLOCATION_SIZE
+    )
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,6 +3,7 @@ package com.food.foodorder.entity;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 
 @Entity
@@ -10,7 +11,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id")
+    @TableGenerator(
+            name = "order_items_id",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "order_items",
+            allocationSize = IdGenerators.ALLOCATION_SIZE
+    )
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -19,8 +28,10 @@ public class OrderItem {
     private Order order;
 
     // 🔥 THIS MUST EXIST
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: order lines already carry name, image and price (see getFoodSummary)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "food_id", nullable = false)
+    @JsonIgnore
     private Food food;
 
     @Column(nullable = false)
@@ -62,6 +73,30 @@ public class OrderItem {
         this.food = food;
     }
 
+    // ✅ Serialized as "food": {id, name, imageUrl, price} built from this line's own
+    //    columns, so the product row is never loaded just to render an order
+    @JsonProperty("food")
+    public FoodSummary getFoodSummary() {
+        if (food == null) {
+            return null;
+        }
+        return new FoodSummary(food.getId(), productName, imageUrl, price);
+    }
+
+    public static class FoodSummary {
+        public final Long id;
+        public final String name;
+        public final String imageUrl;
+        public final Double price;
+
+        public FoodSummary(Long id, String name, String imageUrl, Double price) {
+            this.id = id;
+            this.name = name;
+            this.imageUrl = imageUrl;
+            this.price = price;
+        }
+    }
+
     public Double getPrice() {
         return price;
     }
@@ -9,7 +9,15 @@ import jakarta.persistence.*;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payments_id")
+    @TableGenerator(
+            name = "payments_id",
+            table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "payments",
+            allocationSize = IdGenerators.ALLOCATION_SIZE
+    )
     private Long id;
 
     private Long orderId;
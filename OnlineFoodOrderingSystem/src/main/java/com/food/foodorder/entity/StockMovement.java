@@ -0,0 +1,11 @@
+package com.food.foodorder.entity;
+
+// Why a product's stock moved (inventory_ledger.reason)
+public enum StockMovement {
+    OPENING,        // stock on hand when the ledger was started
+    ORDER,
+    HOLD,           // taken for a checkout in progress
+    RELEASE,        // hold expired, replaced or not used by the order
+    ADJUST,         // admin edit / new product
+    IMPORT
+}
@@ -12,6 +12,8 @@ public interface CartRepository extends JpaRepository<CartItem, Long> {
 
     List<CartItem> findByUserId(Long userId);
 
+    boolean existsByUserId(Long userId);
+
     // ✅ ADD: Find existing cart item by user and food
     CartItem findByUserIdAndFood_Id(Long userId, Long foodId);
 
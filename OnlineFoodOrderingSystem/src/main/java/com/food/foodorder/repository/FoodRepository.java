@@ -1,19 +1,68 @@
 package com.food.foodorder.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.food.foodorder.dto.FoodDetailResponse;
+import com.food.foodorder.dto.FoodListResponse;
 import com.food.foodorder.entity.Food;
 
+import jakarta.persistence.QueryHint;
+
 public interface FoodRepository extends JpaRepository<Food, Long> {
 
     // 🔹 Custom method (NO SQL written by you)
     List<Food> findByCategory(String category);
 
-    // 🔹 Search method for products by name or category
-    @Query("SELECT f FROM Food f WHERE LOWER(f.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(f.category) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Food> searchFoods(@Param("query") String query);
+    // Catalog snapshot load: entities are copied right away, so skip dirty-checking state
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT f FROM Food f")
+    List<Food> findAllReadOnly();
+
+    // Export: forward-only, row-by-row (MySQL streams when fetch size is Integer.MIN_VALUE).
+    // Consume inside a read-only transaction and close the stream.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.food.foodorder.dto.FoodDetailResponse("
+            + "f.id, f.name, f.price, f.imageUrl, f.category, f.stock, f.status, f.active, f.description) "
+            + "FROM Food f ORDER BY f.id")
+    Stream<FoodDetailResponse> streamAllForExport();
+
+    // ======================================================
+    // KEYSET PAGES
+    // Each query seeks past the last (sort value, id) seen, so page N reads the
+    // same handful of index entries as page 1. Pass only Pageable.ofSize(n).
+    // categoryKey is the trimmed, lower-cased category (as the snapshot matches
+    // it for the other sorts), compared to the indexed foods.category_key
+    // column as-is; null means all categories.
+    // Rows are projected straight into FoodListResponse (no description, no
+    // managed entities).
+    // ======================================================
+
+    String LIST_ROW = "SELECT new com.food.foodorder.dto.FoodListResponse("
+            + "f.id, f.name, f.price, f.imageUrl, f.category, f.stock, f.status, f.active) ";
+
+    @Query(LIST_ROW + "FROM Food f WHERE (:categoryKey IS NULL OR f.categoryKey = :categoryKey) "
+            + "AND f.id > :afterId ORDER BY f.id")
+    List<FoodListResponse> findPageById(@Param("categoryKey") String categoryKey,
+                            @Param("afterId") long afterId,
+                            Pageable page);
+
+    // Products without a name are not part of the alphabetical listing
+    @Query(LIST_ROW + "FROM Food f WHERE (:categoryKey IS NULL OR f.categoryKey = :categoryKey) "
+            + "AND (f.name > :name OR (f.name = :name AND f.id > :afterId)) "
+            + "ORDER BY f.name, f.id")
+    List<FoodListResponse> findPageByName(@Param("categoryKey") String categoryKey,
+                              @Param("name") String name,
+                              @Param("afterId") long afterId,
+                              Pageable page);
 }
@@ -1,8 +1,11 @@
 package com.food.foodorder.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.food.foodorder.entity.OrderItem;
 
@@ -11,4 +14,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
     List<OrderItem> findByOrder_Id(Long orderId);
 
     List<OrderItem> findByOrder_IdAndOrder_User_Id(Integer orderId, Long userId);
+
+    // Units sold per food: [foodId, quantity]
+    @Query("SELECT oi.food.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.food.id")
+    List<Object[]> sumQuantityByFood();
+
+    @Query("SELECT oi.food.id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.food.id IN :foodIds GROUP BY oi.food.id")
+    List<Object[]> sumQuantityByFoodIn(@Param("foodIds") Collection<Long> foodIds);
 }
@@ -1,7 +1,11 @@
 package com.food.foodorder.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +19,22 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     boolean existsByIdAndUser_Id(Long id, Long userId);
 
+    // ✅ Order + items in one query (used outside a transaction, e.g. by the email outbox)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    // ✅ Keyset cursor over orders placed in [from, to): next ids after `afterId`
+    @Query("SELECT o.id FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsPlacedBetween(@Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("afterId") Long afterId,
+                                    Pageable page);
+
+    long countByOrderDateGreaterThanEqualAndOrderDateLessThan(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
     // ============================
     // ✅ ADD THESE TWO METHODS
     // ============================
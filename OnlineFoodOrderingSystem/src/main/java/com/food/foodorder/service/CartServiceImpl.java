@@ -48,6 +48,13 @@ public class CartServiceImpl implements CartService {
         CartItem existing =
                 cartRepository.findByUserIdAndFood_Id(user.getId(), food.getId());
 
+        // Early feedback only; stock is actually held at checkout
+        long wanted = request.getQuantity() + (existing != null ? existing.getQuantity() : 0);
+        if (wanted > food.getStock()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Only " + food.getStock() + " left in stock");
+        }
+
         if (existing != null) {
             existing.setQuantity(existing.getQuantity() + request.getQuantity());
             cartRepository.save(existing);
@@ -0,0 +1,62 @@
+package com.food.foodorder.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.food.foodorder.dto.CatalogSort;
+import com.food.foodorder.exception.BadRequestException;
+
+/**
+ * Opaque keyset cursor: the sort, the last row's sort value and its id,
+ * base64url-encoded so clients pass it back untouched.
+ */
+final class CatalogCursor {
+
+    final CatalogSort sort;
+    final long lastId;
+    final String lastValue;
+
+    CatalogCursor(CatalogSort sort, long lastId, String lastValue) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastValue = lastValue == null ? "" : lastValue;
+    }
+
+    String encode() {
+        String raw = sort.name() + "|" + lastId + "|" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CatalogCursor decode(String token, CatalogSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            CatalogSort sort = CatalogSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new BadRequestException("Cursor was issued for sort " + sort);
+            }
+            return new CatalogCursor(sort, Long.parseLong(parts[1]), parts[2]);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    double lastDouble() {
+        try {
+            return Double.parseDouble(lastValue);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    long lastLong() {
+        try {
+            return Long.parseLong(lastValue);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
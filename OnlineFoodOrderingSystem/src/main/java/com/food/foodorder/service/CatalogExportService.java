@@ -0,0 +1,121 @@
+package com.food.foodorder.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.foodorder.dto.FoodDetailResponse;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.repository.FoodRepository;
+
+/**
+ * Streams the whole catalog as CSV or NDJSON, optionally gzipped.
+ *
+ * Rows come off a forward-only database cursor as projections (never
+ * managed entities) and are written straight to the response, so memory use
+ * does not depend on catalog size. The CSV layout is the one the importer
+ * reads back.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final String CSV_HEADER = "name,description,price,category,imageUrl,stock,active,status";
+
+    // Rows between flushes, keeps the client receiving data on long exports
+    private static final int FLUSH_EVERY = 1000;
+
+    private final FoodRepository foodRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public CatalogExportService(FoodRepository foodRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.foodRepository = foodRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean isSupported(String format) {
+        return "csv".equalsIgnoreCase(format) || "ndjson".equalsIgnoreCase(format);
+    }
+
+    public void export(OutputStream out, String format, boolean gzip) throws IOException {
+
+        if (!isSupported(format)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<FoodDetailResponse> rows = foodRepository.streamAllForExport()) {
+                    if (csv) {
+                        writer.write(CSV_HEADER);
+                        writer.write('\n');
+                    }
+                    long count = 0;
+                    Iterator<FoodDetailResponse> it = rows.iterator();
+                    while (it.hasNext()) {
+                        FoodDetailResponse food = it.next();
+                        if (csv) {
+                            writeCsvRow(writer, food);
+                        } else {
+                            writer.write(objectMapper.writeValueAsString(food));
+                            writer.write('\n');
+                        }
+                        if (++count % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Write the gzip trailer but leave closing the response to the container
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        out.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, FoodDetailResponse food) throws IOException {
+        writer.write(Csv.escape(food.getName()));
+        writer.write(',');
+        writer.write(Csv.escape(food.getDescription()));
+        writer.write(',');
+        writer.write(food.getPrice() == null ? "" : food.getPrice().toString());
+        writer.write(',');
+        writer.write(Csv.escape(food.getCategory()));
+        writer.write(',');
+        writer.write(Csv.escape(food.getImageUrl()));
+        writer.write(',');
+        writer.write(Long.toString(food.getStock()));
+        writer.write(',');
+        writer.write(String.valueOf(Boolean.TRUE.equals(food.getActive())));
+        writer.write(',');
+        writer.write(Csv.escape(food.getStatus()));
+        writer.write('\n');
+    }
+}
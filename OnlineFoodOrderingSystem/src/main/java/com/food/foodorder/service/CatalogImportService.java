@@ -0,0 +1,412 @@
+package com.food.foodorder.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.foodorder.dto.ImportReport;
+import com.food.foodorder.dto.ImportReport.RowError;
+import com.food.foodorder.entity.Food;
+import com.food.foodorder.entity.IdGenerators;
+import com.food.foodorder.entity.StockMovement;
+import com.food.foodorder.exception.BadRequestException;
+
+/**
+ * Streaming catalog import for supplier feeds (NDJSON or CSV with a header row).
+ *
+ * The feed is read one record at a time and upserted by product name in
+ * chunks: one IN lookup, one JDBC batch of UPDATEs and one of INSERTs per
+ * chunk, each chunk in its own transaction. New rows take ids from the same
+ * pooled generator as Food. Only the current chunk and the
+ * first few row errors are held in memory, whatever the feed size.
+ *
+ * A feed only changes what it carries: columns a row leaves out (or leaves
+ * empty) keep their current value on existing products, and stock is only
+ * set for rows that give one, so a price-only feed touches nothing else.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // id_generators row shared with Food's @TableGenerator
+    private static final String FOODS_SEGMENT = "foods";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO foods (id, name, description, price, category, image_url, active, status) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE foods SET description = COALESCE(?, description), price = ?, "
+                    + "category = COALESCE(?, category), image_url = COALESCE(?, image_url), "
+                    + "active = COALESCE(?, active), status = COALESCE(?, status) WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final FoodService foodService;
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
+
+    public CatalogImportService(NamedParameterJdbcTemplate jdbc,
+                                TransactionTemplate transactionTemplate,
+                                FoodService foodService,
+                                InventoryService inventoryService,
+                                ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.foodService = foodService;
+        this.inventoryService = inventoryService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param format "csv" or "ndjson"
+     */
+    public ImportReport importFeed(InputStream body, String format) {
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new BadRequestException("Unsupported import format: " + format);
+        }
+
+        Progress progress = new Progress();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (csv) {
+                readCsv(reader, progress);
+            } else {
+                readNdjson(reader, progress);
+            }
+            flush(progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (progress.inserted + progress.updated > 0) {
+            foodService.reloadCatalog();
+        }
+
+        System.out.println("✅ Catalog import done: " + progress.processed + " rows, "
+                + progress.inserted + " inserted, " + progress.updated + " updated, "
+                + progress.failed + " failed");
+
+        return new ImportReport(progress.processed, progress.inserted, progress.updated,
+                progress.failed, progress.errors);
+    }
+
+    // ======================================================
+    // PARSING
+    // ======================================================
+
+    private void readCsv(BufferedReader reader, Progress progress) throws IOException {
+
+        List<String> header = Csv.readRecord(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new BadRequestException("CSV header must contain name and price columns");
+        }
+
+        List<String> record;
+        while ((record = Csv.readRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long row = ++progress.processed;
+            try {
+                Food food = new Food();
+                food.setName(column(record, columns, "name"));
+                food.setDescription(column(record, columns, "description"));
+                food.setPrice(parseDouble(column(record, columns, "price")));
+                food.setCategory(column(record, columns, "category"));
+                food.setImageUrl(column(record, columns, "imageurl"));
+                String stock = column(record, columns, "stock");
+                String active = column(record, columns, "active");
+                food.setActive(active == null ? null : Boolean.parseBoolean(active));
+                food.setStatus(column(record, columns, "status"));
+                accept(progress, row, food, stock == null ? null : parseLong(stock));
+            } catch (BadRequestException e) {
+                progress.fail(row, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Progress progress) throws IOException {
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = ++progress.processed;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                Food food = new Food();
+                food.setName(text(node, "name"));
+                food.setDescription(text(node, "description"));
+                food.setPrice(parseDouble(text(node, "price")));
+                food.setCategory(text(node, "category"));
+                String imageUrl = text(node, "imageUrl");
+                food.setImageUrl(imageUrl != null ? imageUrl : text(node, "image_url"));
+                String stock = text(node, "stock");
+                food.setActive(node.hasNonNull("active") ? node.get("active").asBoolean() : null);
+                food.setStatus(text(node, "status"));
+                accept(progress, row, food, stock == null ? null : parseLong(stock));
+            } catch (BadRequestException e) {
+                progress.fail(row, e.getMessage());
+            } catch (IOException e) {
+                progress.fail(row, "Invalid JSON");
+            }
+        }
+    }
+
+    // Fields left null were not in the row: see UPDATE_SQL
+    private void accept(Progress progress, long row, Food food, Long stock) {
+
+        if (food.getName() == null || food.getName().isBlank()) {
+            throw new BadRequestException("Name is required");
+        }
+        if (food.getPrice() < 0) {
+            throw new BadRequestException("Price must be zero or more");
+        }
+        if (stock != null && stock < 0) {
+            throw new BadRequestException("Stock must be zero or more");
+        }
+        food.setName(food.getName().trim());
+        food.setStatus(food.getStatus() == null || food.getStatus().isBlank()
+                ? null
+                : food.getStatus().trim().toUpperCase(Locale.ROOT));
+
+        // Later rows for the same name win within a chunk
+        progress.chunk.put(food.getName().toLowerCase(Locale.ROOT), new PendingRow(row, food, stock));
+        if (progress.chunk.size() >= CHUNK_SIZE) {
+            flush(progress);
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static double parseDouble(String value) {
+        if (value == null) {
+            throw new BadRequestException("Price is required");
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid number: " + value);
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid integer: " + value);
+        }
+    }
+
+    // ======================================================
+    // WRITING
+    // ======================================================
+
+    private void flush(Progress progress) {
+
+        if (progress.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = new ArrayList<>(progress.chunk.values());
+        progress.chunk.clear();
+
+        try {
+            int[] counts = transactionTemplate.execute(status -> upsert(rows));
+            progress.inserted += counts[0];
+            progress.updated += counts[1];
+        } catch (DataAccessException e) {
+            for (PendingRow row : rows) {
+                progress.fail(row.row, "Chunk rejected by database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        System.out.println("📦 Catalog import: " + progress.processed + " rows read, "
+                + progress.inserted + " inserted, " + progress.updated + " updated, "
+                + progress.failed + " failed");
+    }
+
+    // Returns {inserted, updated}
+    private int[] upsert(List<PendingRow> rows) {
+
+        List<String> names = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            names.add(row.food.getName());
+        }
+
+        // Name lookup follows the column collation (case-insensitive on MySQL)
+        Map<String, Long> existing = new HashMap<>();
+        jdbc.query("SELECT id, name FROM foods WHERE name IN (:names) ORDER BY id",
+                Map.of("names", names),
+                rs -> {
+                    existing.putIfAbsent(rs.getString("name").toLowerCase(Locale.ROOT), rs.getLong("id"));
+                });
+
+        List<Food> inserts = new ArrayList<>();
+        List<Food> updates = new ArrayList<>();
+        for (PendingRow row : rows) {
+            Long id = existing.get(row.food.getName().toLowerCase(Locale.ROOT));
+            if (id == null) {
+                inserts.add(row.food);
+            } else {
+                row.food.setId(id);
+                updates.add(row.food);
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            jdbc.getJdbcTemplate().batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Food food = updates.get(i);
+                    ps.setString(1, food.getDescription());
+                    ps.setDouble(2, food.getPrice());
+                    ps.setString(3, food.getCategory());
+                    ps.setString(4, food.getImageUrl());
+                    ps.setObject(5, food.isActive(), Types.BOOLEAN);
+                    ps.setString(6, food.getStatus());
+                    ps.setLong(7, food.getId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return updates.size();
+                }
+            });
+        }
+
+        if (!inserts.isEmpty()) {
+            long firstId = allocateFoodIds(inserts.size());
+            for (int i = 0; i < inserts.size(); i++) {
+                inserts.get(i).setId(firstId + i);
+            }
+            jdbc.getJdbcTemplate().batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Food food = inserts.get(i);
+                    ps.setLong(1, food.getId());
+                    ps.setString(2, food.getName());
+                    ps.setString(3, food.getDescription());
+                    ps.setDouble(4, food.getPrice());
+                    ps.setString(5, food.getCategory());
+                    ps.setString(6, food.getImageUrl());
+                    // New products get the entity defaults for what the row left out
+                    ps.setBoolean(7, food.isActive() == null || food.isActive());
+                    ps.setString(8, food.getStatus() != null ? food.getStatus() : "AVAILABLE");
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return inserts.size();
+                }
+            });
+        }
+
+        // Stock lives in inventory_slots, spread over each product's slots; rows without one keep theirs
+        Map<Long, Long> stocks = new HashMap<>();
+        for (PendingRow row : rows) {
+            if (row.stock != null) {
+                stocks.put(row.food.getId(), row.stock);
+            }
+        }
+        if (!stocks.isEmpty()) {
+            inventoryService.setStock(stocks, StockMovement.IMPORT);
+        }
+
+        return new int[] { inserts.size(), updates.size() };
+    }
+
+    /**
+     * Reserve {@code count} consecutive food ids from the same pooled generator row
+     * Hibernate uses: with stored value V the free range starts at V - ALLOCATION_SIZE + 1,
+     * and moving V up by {@code count} keeps later Hibernate blocks clear of it.
+     */
+    private long allocateFoodIds(int count) {
+        Long stored = jdbc.getJdbcTemplate().queryForObject(
+                "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE
+                        + " WHERE " + IdGenerators.SEGMENT_COLUMN + " = ? FOR UPDATE",
+                Long.class, FOODS_SEGMENT);
+        jdbc.getJdbcTemplate().update(
+                "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ?"
+                        + " WHERE " + IdGenerators.SEGMENT_COLUMN + " = ?",
+                stored + count, FOODS_SEGMENT);
+        return stored - IdGenerators.ALLOCATION_SIZE + 1;
+    }
+
+    // ======================================================
+    // STATE
+    // ======================================================
+
+    private static final class PendingRow {
+        final long row;
+        final Food food;
+        final Long stock;
+
+        PendingRow(long row, Food food, Long stock) {
+            this.row = row;
+            this.food = food;
+            this.stock = stock;
+        }
+    }
+
+    private static final class Progress {
+        final Map<String, PendingRow> chunk = new LinkedHashMap<>();
+        final List<RowError> errors = new ArrayList<>();
+        long processed;
+        long inserted;
+        long updated;
+        long failed;
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.food.foodorder.dto.CatalogSort;
+import com.food.foodorder.dto.SuggestionResponse;
+import com.food.foodorder.entity.Food;
+
+/**
+ * Immutable, read-optimized view of the product catalog.
+ *
+ * A new snapshot is published on every catalog write, so readers only ever
+ * dereference a volatile field and never take a lock or touch the database.
+ * The snapshot owns private copies of every {@link Food}; entities handed
+ * out by it are never attached to a persistence context.
+ */
+final class CatalogSnapshot {
+
+    private static final Comparator<Food> BY_ID = Comparator.comparing(Food::getId);
+
+    private final long version;
+
+    // Parallel arrays ordered by id: ids[i] is foods[i]'s id and sold[i] its units ordered (popularity).
+    // Lookups are binary searches, so a patch copies flat arrays instead of rehashing a map.
+    private final long[] ids;
+    private final Food[] foods;
+    private final long[] sold;
+
+    private final List<Food> foodList;
+
+    // Keyed by normalized category (MySQL compares categories case-insensitively)
+    private final Map<String, List<Food>> byCategory;
+
+    private final ProductSearchIndex searchIndex;
+
+    // Product-name words for typo-tolerant lookups
+    private final FuzzyTermIndex nameVocabulary;
+
+    // Id bitmaps per category / status / active / in-stock bucket
+    private final FacetIndex facets;
+
+    // Sorted id permutations, catalog-wide and per normalized category
+    private final SortOrders sortOrders;
+    private final Map<String, SortOrders> categorySortOrders;
+
+    private final SortOrders.Keys keys;
+
+    // Built on first autocomplete request; inherited while product text is unchanged
+    private volatile SuggestionTrie suggestionTrie;
+
+    private CatalogSnapshot(long version,
+                            long[] ids,
+                            Food[] foods,
+                            long[] sold,
+                            Map<String, List<Food>> byCategory,
+                            ProductSearchIndex searchIndex,
+                            FuzzyTermIndex nameVocabulary,
+                            FacetIndex facets,
+                            SortOrders sortOrders,
+                            Map<String, SortOrders> categorySortOrders,
+                            SuggestionTrie suggestionTrie) {
+        this.version = version;
+        this.ids = ids;
+        this.foods = foods;
+        this.sold = sold;
+        this.foodList = Collections.unmodifiableList(Arrays.asList(foods));
+        this.byCategory = byCategory;
+        this.searchIndex = searchIndex;
+        this.nameVocabulary = nameVocabulary;
+        this.facets = facets;
+        this.sortOrders = sortOrders;
+        this.categorySortOrders = categorySortOrders;
+        this.keys = keys(ids, foods, sold);
+        this.suggestionTrie = suggestionTrie;
+    }
+
+    static CatalogSnapshot of(long version, Collection<Food> source, Map<Long, Long> unitsSold) {
+
+        Food[] foods = new Food[source.size()];
+        int n = 0;
+        for (Food food : source) {
+            foods[n++] = copyOf(food);
+        }
+        Arrays.sort(foods, BY_ID);
+
+        long[] ids = new long[n];
+        long[] sold = new long[n];
+        Map<String, List<Food>> grouped = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids[i] = foods[i].getId();
+            sold[i] = unitsSold.getOrDefault(ids[i], 0L);
+            grouped.computeIfAbsent(categoryKey(foods[i].getCategory()), k -> new ArrayList<>()).add(foods[i]);
+        }
+
+        Map<String, List<Food>> byCategory = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, list) -> byCategory.put(key, Collections.unmodifiableList(list)));
+
+        SortOrders.Keys keys = keys(ids, foods, sold);
+
+        Map<String, SortOrders> categorySortOrders = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, list) -> categorySortOrders.put(key, SortOrders.build(ids(list), keys)));
+
+        List<Food> all = Arrays.asList(foods);
+        return new CatalogSnapshot(
+                version,
+                ids,
+                foods,
+                sold,
+                Collections.unmodifiableMap(byCategory),
+                ProductSearchIndex.build(all),
+                FuzzyTermIndex.build(nameTerms(all)),
+                FacetIndex.build(all),
+                SortOrders.build(ids(all), keys),
+                Collections.unmodifiableMap(categorySortOrders),
+                null
+        );
+    }
+
+    // ======================================================
+    // READS
+    // ======================================================
+
+    long version() {
+        return version;
+    }
+
+    List<Food> foods() {
+        return foodList;
+    }
+
+    Food get(Long id) {
+        int i = id == null ? -1 : Arrays.binarySearch(ids, id);
+        return i >= 0 ? foods[i] : null;
+    }
+
+    List<Food> byCategory(String category) {
+        return byCategory.getOrDefault(categoryKey(category), List.of());
+    }
+
+    Collection<String> categoryKeys() {
+        return byCategory.keySet();
+    }
+
+    List<Food> search(String query) {
+        return resolve(searchIndex.search(query));
+    }
+
+    List<Food> searchFuzzy(String query) {
+        return resolve(searchIndex.searchFuzzy(query, nameVocabulary));
+    }
+
+    FacetIndex.Result filter(Collection<String> categories,
+                             Collection<String> statuses,
+                             Boolean active,
+                             Boolean inStock) {
+        return facets.filter(categories, statuses, active, inStock);
+    }
+
+    List<Food> getAll(List<Long> ids) {
+        return resolve(ids);
+    }
+
+    long unitsSold(Long id) {
+        return id == null ? 0 : keys.unitsSold(id);
+    }
+
+    /**
+     * Page of a precomputed sort order (see {@link SortOrders#SORTS}), starting
+     * after the cursor position; a binary search plus an array slice.
+     */
+    List<Food> sortedPage(CatalogSort sort, String category, CatalogCursor cursor, int limit) {
+        SortOrders orders = category == null ? sortOrders : categorySortOrders.get(categoryKey(category));
+        if (orders == null) {
+            return List.of();
+        }
+        return resolve(orders.slice(sort, cursor, limit, keys));
+    }
+
+    /**
+     * Suggestions ranked by the popularity known when the trie was built; the
+     * ranking catches up on the next text change or full catalog reload.
+     */
+    List<SuggestionResponse> suggest(String prefix, int limit) {
+        SuggestionTrie trie = suggestionTrie;
+        if (trie == null) {
+            synchronized (this) {
+                trie = suggestionTrie;
+                if (trie == null) {
+                    Map<Long, Long> unitsSold = new HashMap<>(ids.length * 2);
+                    for (int i = 0; i < ids.length; i++) {
+                        if (sold[i] > 0) {
+                            unitsSold.put(ids[i], sold[i]);
+                        }
+                    }
+                    trie = SuggestionTrie.build(foodList, unitsSold);
+                    suggestionTrie = trie;
+                }
+            }
+        }
+        return trie.suggest(prefix, limit);
+    }
+
+    private List<Food> resolve(List<Long> ids) {
+        List<Food> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Food food = get(id);
+            if (food != null) {
+                result.add(food);
+            }
+        }
+        return result;
+    }
+
+    // ======================================================
+    // PATCHES (copy-on-write, untouched structures are shared)
+    // ======================================================
+
+    CatalogSnapshot withFood(long newVersion, Food food) {
+        return withChanges(newVersion, List.of(food), List.of());
+    }
+
+    CatalogSnapshot withoutFood(long newVersion, Long id) {
+        return withChanges(newVersion, List.of(), List.of(id));
+    }
+
+    /**
+     * Set the current stock of some products (foodId → stock, as read after commit).
+     */
+    CatalogSnapshot withStock(long newVersion, Map<Long, Long> stocks) {
+        return withChanges(newVersion, stockSet(stocks), List.of(), Map.of());
+    }
+
+    /**
+     * Set stock and units sold of the products in a committed order (absolute values).
+     */
+    CatalogSnapshot withSales(long newVersion, Map<Long, Long> stocks, Map<Long, Long> unitsSold) {
+        return withChanges(newVersion, stockSet(stocks), List.of(), unitsSold);
+    }
+
+    private List<Food> stockSet(Map<Long, Long> stocks) {
+        List<Food> updated = new ArrayList<>(stocks.size());
+        for (Map.Entry<Long, Long> e : stocks.entrySet()) {
+            Food current = get(e.getKey());
+            if (current != null && current.getStock() != e.getValue().longValue()) {
+                Food copy = copyOf(current);
+                copy.setStock(e.getValue());
+                updated.add(copy);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * One patch for a whole batch of upserts and deletes, so each index is copied once.
+     */
+    CatalogSnapshot withChanges(long newVersion, Collection<Food> upserts, Collection<Long> removedIds) {
+        return withChanges(newVersion, upserts, removedIds, Map.of());
+    }
+
+    private CatalogSnapshot withChanges(long newVersion,
+                                        Collection<Food> upserts,
+                                        Collection<Long> removedIds,
+                                        Map<Long, Long> soldUpdates) {
+
+        // id → new version (null = removed); ids with only new sales keep their version
+        Map<Long, Food> changed = new TreeMap<>();
+        for (Long id : removedIds) {
+            if (get(id) != null) {
+                changed.put(id, null);
+            }
+        }
+        for (Food food : upserts) {
+            Food copy = copyOf(food);
+            changed.put(copy.getId(), copy);
+        }
+        soldUpdates.forEach((id, units) -> {
+            Food current = get(id);
+            if (current != null && units != unitsSold(id)) {
+                changed.putIfAbsent(id, current);
+            }
+        });
+
+        if (changed.isEmpty()) {
+            return new CatalogSnapshot(newVersion, ids, foods, sold, byCategory, searchIndex, nameVocabulary,
+                    facets, sortOrders, categorySortOrders, suggestionTrie);
+        }
+
+        // ---- Arrays: replace in place, or merge when ids come or go ----
+
+        boolean structural = false;
+        for (Map.Entry<Long, Food> e : changed.entrySet()) {
+            if (e.getValue() == null || get(e.getKey()) == null) {
+                structural = true;
+                break;
+            }
+        }
+
+        long[] newIds;
+        Food[] newFoods;
+        long[] newSold;
+        if (!structural) {
+            newIds = ids;
+            newFoods = foods.clone();
+            newSold = soldUpdates.isEmpty() ? sold : sold.clone();
+            for (Map.Entry<Long, Food> e : changed.entrySet()) {
+                newFoods[Arrays.binarySearch(ids, e.getKey())] = e.getValue();
+            }
+        } else {
+            newIds = new long[ids.length + changed.size()];
+            newFoods = new Food[newIds.length];
+            newSold = new long[newIds.length];
+            int from = 0;
+            int n = 0;
+            for (Map.Entry<Long, Food> e : changed.entrySet()) {
+                int pos = Arrays.binarySearch(ids, from, ids.length, e.getKey());
+                int runEnd = pos >= 0 ? pos : -pos - 1;
+                System.arraycopy(ids, from, newIds, n, runEnd - from);
+                System.arraycopy(foods, from, newFoods, n, runEnd - from);
+                System.arraycopy(sold, from, newSold, n, runEnd - from);
+                n += runEnd - from;
+                from = pos >= 0 ? pos + 1 : runEnd;
+                if (e.getValue() != null) {
+                    newIds[n] = e.getKey();
+                    newFoods[n] = e.getValue();
+                    newSold[n] = pos >= 0 ? sold[pos] : 0;
+                    n++;
+                }
+            }
+            System.arraycopy(ids, from, newIds, n, ids.length - from);
+            System.arraycopy(foods, from, newFoods, n, ids.length - from);
+            System.arraycopy(sold, from, newSold, n, ids.length - from);
+            n += ids.length - from;
+            newIds = Arrays.copyOf(newIds, n);
+            newFoods = Arrays.copyOf(newFoods, n);
+            newSold = Arrays.copyOf(newSold, n);
+        }
+        for (Map.Entry<Long, Long> e : soldUpdates.entrySet()) {
+            int i = Arrays.binarySearch(newIds, e.getKey());
+            if (i >= 0) {
+                newSold[i] = e.getValue();
+            }
+        }
+        SortOrders.Keys newKeys = keys(newIds, newFoods, newSold);
+
+        // ---- Per changed id: what each index has to do with it ----
+
+        // Old versions leaving the text index / new versions entering it
+        List<Food> unindexed = new ArrayList<>();
+        List<Food> indexed = new ArrayList<>();
+
+        // Same for the facet bitmaps
+        List<Food> unfaceted = new ArrayList<>();
+        List<Food> faceted = new ArrayList<>();
+
+        // Category lists being edited (copied on first touch)
+        Map<String, List<Food>> editedCategories = new HashMap<>();
+
+        SortOrders.Changes sortChanges = new SortOrders.Changes();
+        Map<String, SortOrders.Changes> categorySortChanges = new HashMap<>();
+
+        for (Map.Entry<Long, Food> e : changed.entrySet()) {
+            long id = e.getKey();
+            Food previous = get(id);
+            Food current = e.getValue();
+            String oldKey = previous == null ? null : categoryKey(previous.getCategory());
+            String newKey = current == null ? null : categoryKey(current.getCategory());
+
+            boolean textChanged = previous == null || current == null
+                    || ProductSearchIndex.indexedFieldsDiffer(previous, current);
+            boolean facetsChanged = previous == null || current == null
+                    || FacetIndex.facetFieldsDiffer(previous, current);
+            if (previous != null && textChanged) {
+                unindexed.add(previous);
+            }
+            if (current != null && textChanged) {
+                indexed.add(current);
+            }
+            if (previous != null && facetsChanged) {
+                unfaceted.add(previous);
+            }
+            if (current != null && facetsChanged) {
+                faceted.add(current);
+            }
+
+            if (previous != current) {
+                if (oldKey != null && !oldKey.equals(newKey)) {
+                    removeFromCategory(edit(editedCategories, oldKey), previous);
+                }
+                if (newKey != null) {
+                    putInCategory(edit(editedCategories, newKey), current);
+                }
+            }
+
+            if (previous == null) {
+                sortChanges.enter(SortOrders.SORTS, id);
+                categorySortChanges.computeIfAbsent(newKey, k -> new SortOrders.Changes()).enter(SortOrders.SORTS, id);
+            } else if (current == null) {
+                sortChanges.leave(SortOrders.SORTS, id);
+                categorySortChanges.computeIfAbsent(oldKey, k -> new SortOrders.Changes()).leave(SortOrders.SORTS, id);
+            } else {
+                List<CatalogSort> moved = SortOrders.moved(id, keys, newKeys);
+                sortChanges.move(moved, id);
+                if (oldKey.equals(newKey)) {
+                    if (!moved.isEmpty()) {
+                        categorySortChanges.computeIfAbsent(oldKey, k -> new SortOrders.Changes()).move(moved, id);
+                    }
+                } else {
+                    categorySortChanges.computeIfAbsent(oldKey, k -> new SortOrders.Changes()).leave(SortOrders.SORTS, id);
+                    categorySortChanges.computeIfAbsent(newKey, k -> new SortOrders.Changes()).enter(SortOrders.SORTS, id);
+                }
+            }
+        }
+
+        Map<String, List<Food>> newByCategory = byCategory;
+        if (!editedCategories.isEmpty()) {
+            newByCategory = new HashMap<>(byCategory);
+            for (Map.Entry<String, List<Food>> e : editedCategories.entrySet()) {
+                if (e.getValue().isEmpty()) {
+                    newByCategory.remove(e.getKey());
+                } else {
+                    newByCategory.put(e.getKey(), Collections.unmodifiableList(e.getValue()));
+                }
+            }
+            newByCategory = Collections.unmodifiableMap(newByCategory);
+        }
+
+        Map<String, SortOrders> newCategorySortOrders = categorySortOrders;
+        if (!categorySortChanges.isEmpty()) {
+            newCategorySortOrders = new HashMap<>(categorySortOrders);
+            for (Map.Entry<String, SortOrders.Changes> e : categorySortChanges.entrySet()) {
+                SortOrders patched = categorySortOrders.getOrDefault(e.getKey(), SortOrders.EMPTY)
+                        .withChanges(e.getValue(), keys, newKeys);
+                if (patched.isEmpty()) {
+                    newCategorySortOrders.remove(e.getKey());
+                } else {
+                    newCategorySortOrders.put(e.getKey(), patched);
+                }
+            }
+            newCategorySortOrders = Collections.unmodifiableMap(newCategorySortOrders);
+        }
+
+        boolean textChanged = !unindexed.isEmpty() || !indexed.isEmpty();
+
+        return new CatalogSnapshot(
+                newVersion,
+                newIds,
+                newFoods,
+                newSold,
+                newByCategory,
+                searchIndex.withChanges(unindexed, indexed),
+                nameVocabulary.withWords(nameTerms(indexed)),
+                facets.withChanges(unfaceted, faceted),
+                sortOrders.withChanges(sortChanges, keys, newKeys),
+                newCategorySortOrders,
+                textChanged ? null : suggestionTrie
+        );
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+
+    static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Long> ids(Collection<Food> foods) {
+        List<Long> ids = new ArrayList<>(foods.size());
+        for (Food food : foods) {
+            ids.add(food.getId());
+        }
+        return ids;
+    }
+
+    private static Set<String> nameTerms(Collection<Food> foods) {
+        Set<String> words = new LinkedHashSet<>();
+        for (Food food : foods) {
+            words.addAll(ProductSearchIndex.nameTerms(food));
+        }
+        return words;
+    }
+
+    private List<Food> edit(Map<String, List<Food>> edited, String key) {
+        return edited.computeIfAbsent(key, k -> new ArrayList<>(byCategory.getOrDefault(k, List.of())));
+    }
+
+    // Replace in place when present, otherwise insert at its id position
+    private static void putInCategory(List<Food> list, Food food) {
+        int pos = Collections.binarySearch(list, food, BY_ID);
+        if (pos >= 0) {
+            list.set(pos, food);
+        } else {
+            list.add(-pos - 1, food);
+        }
+    }
+
+    private static void removeFromCategory(List<Food> list, Food food) {
+        int pos = Collections.binarySearch(list, food, BY_ID);
+        if (pos >= 0) {
+            list.remove(pos);
+        }
+    }
+
+    private static SortOrders.Keys keys(long[] ids, Food[] foods, long[] sold) {
+        return new SortOrders.Keys() {
+            @Override
+            public double price(long id) {
+                int i = Arrays.binarySearch(ids, id);
+                return i < 0 || foods[i].getPrice() == null ? 0 : foods[i].getPrice();
+            }
+
+            @Override
+            public long unitsSold(long id) {
+                int i = Arrays.binarySearch(ids, id);
+                return i < 0 ? 0 : sold[i];
+            }
+        };
+    }
+
+    private static Food copyOf(Food source) {
+        Food copy = new Food();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        if (source.getPrice() != null) {
+            copy.setPrice(source.getPrice());
+        }
+        copy.setCategory(source.getCategory());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setStock(source.getStock());
+        copy.setActive(source.isActive());
+        copy.setStatus(source.getStatus());
+        return copy;
+    }
+}
@@ -0,0 +1,96 @@
+package com.food.foodorder.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.food.foodorder.exception.BadRequestException;
+
+/**
+ * Minimal RFC 4180 CSV helpers for catalog feeds: comma separated, fields
+ * optionally wrapped in double quotes, quotes escaped by doubling them, and
+ * quoted fields may span lines.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * Next record from the reader, or null at end of input. Reads one line, plus
+     * continuation lines while a quoted field is still open.
+     */
+    static List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        StringBuilder record = new StringBuilder(line);
+        int quotes = count(line, '"');
+        while (quotes % 2 != 0) {
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            record.append('\n').append(next);
+            quotes += count(next, '"');
+        }
+        return parseLine(record.toString());
+    }
+
+    private static int count(String s, char c) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    static List<String> parseLine(String line) {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BadRequestException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
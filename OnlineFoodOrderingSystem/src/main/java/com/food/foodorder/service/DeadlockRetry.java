@@ -0,0 +1,33 @@
+package com.food.foodorder.service;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a transaction again when MySQL picks it as a deadlock victim (or a
+ * lock wait times out).
+ *
+ * MySQL rolls the whole transaction back in that case, so only the code that
+ * starts the transaction can retry it. Any other failure is thrown as is.
+ */
+final class DeadlockRetry {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private DeadlockRetry() {
+    }
+
+    static <T> T execute(TransactionTemplate transactionTemplate, TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                System.out.println("🔁 Lock conflict, retrying transaction (attempt " + (attempt + 1) + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.food.foodorder.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.food.foodorder.dto.OutboxEntryResponse;
+import com.food.foodorder.entity.Order;
+import com.food.foodorder.exception.ResourceNotFoundException;
+import com.food.foodorder.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transactional outbox for order emails.
+ *
+ * Order code only inserts an {@code email_outbox} row in its own
+ * transaction, so an email is queued exactly when the order change commits
+ * and SMTP never holds a DB connection or a request thread. After commit the
+ * row is handed to a small dispatcher pool; a scheduled poll picks up
+ * anything that was not (restarts, full pool, retries).
+ *
+ * A dispatcher claims a row with a conditional UPDATE that pushes its next
+ * attempt out by a lease, so two dispatchers never send the same row and a
+ * crash mid-send just lets the lease run out. Failures back off
+ * exponentially; after the last attempt the row is parked as DEAD until an
+ * admin retries it.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class EmailOutbox {
+
+    static final String ORDER_PLACED = "ORDER_PLACED";
+    static final String STATUS_UPDATE = "STATUS_UPDATE";
+
+    private static final String PENDING = "PENDING";
+    private static final String SENT = "SENT";
+    private static final String DEAD = "DEAD";
+
+    // Longer than a full SMTP exchange (connect + write timeouts)
+    private static final long LEASE_SECONDS = 120;
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private static final int POLL_BATCH = 100;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final OrderRepository orderRepository;
+    private final EmailService emailService;
+    private final int maxAttempts;
+    private final long backoffSeconds;
+    private final ThreadPoolExecutor dispatchers;
+
+    public EmailOutbox(NamedParameterJdbcTemplate jdbc,
+                       OrderRepository orderRepository,
+                       EmailService emailService,
+                       @Value("${app.mail.outbox.dispatchers:8}") int dispatcherCount,
+                       @Value("${app.mail.outbox.max-attempts:6}") int maxAttempts,
+                       @Value("${app.mail.outbox.backoff-seconds:30}") long backoffSeconds) {
+        this.jdbc = jdbc;
+        this.orderRepository = orderRepository;
+        this.emailService = emailService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffSeconds = Math.max(1, backoffSeconds);
+
+        // Bounded: when it is full the row simply waits for the next poll
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, dispatcherCount);
+        this.dispatchers = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(POLL_BATCH * 2),
+                r -> {
+                    Thread thread = new Thread(r, "email-outbox-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS email_outbox ("
+                + "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                + "kind VARCHAR(30) NOT NULL, "
+                + "order_id BIGINT NOT NULL, "
+                + "recipient VARCHAR(255) NOT NULL, "
+                + "order_status VARCHAR(30) NULL, "
+                + "state VARCHAR(10) NOT NULL, "
+                + "attempts INT NOT NULL DEFAULT 0, "
+                + "next_attempt_at DATETIME(3) NOT NULL, "
+                + "last_error VARCHAR(500) NULL, "
+                + "created_at DATETIME(3) NOT NULL, "
+                + "sent_at DATETIME(3) NULL, "
+                + "INDEX idx_outbox_due (state, next_attempt_at))");
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Unsent rows stay PENDING and go out after the restart
+        dispatchers.shutdownNow();
+    }
+
+    // ======================================================
+    // ENQUEUE (inside the order transaction)
+    // ======================================================
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Order order, String recipient) {
+        enqueue(ORDER_PLACED, order.getId(), recipient, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Order order, String recipient, String newStatus) {
+        enqueue(STATUS_UPDATE, order.getId(), recipient, newStatus);
+    }
+
+    private void enqueue(String kind, Long orderId, String recipient, String status) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("kind", kind)
+                .addValue("orderId", orderId)
+                .addValue("recipient", recipient)
+                .addValue("status", status)
+                .addValue("state", PENDING)
+                .addValue("now", now);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update("INSERT INTO email_outbox (kind, order_id, recipient, order_status, state, next_attempt_at, created_at) "
+                        + "VALUES (:kind, :orderId, :recipient, :status, :state, :now, :now)",
+                params, keys, new String[] { "id" });
+        long id = keys.getKey().longValue();
+
+        // Only a committed order gets its email
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatchers.execute(() -> deliver(id));
+            }
+        });
+    }
+
+    // ======================================================
+    // DISPATCH
+    // ======================================================
+
+    /**
+     * Hand every due row to the dispatchers (new rows missed after commit, retries, expired leases).
+     */
+    @Scheduled(
+            initialDelayString = "${app.mail.outbox.poll-interval-ms:5000}",
+            fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}"
+    )
+    public void poll() {
+        List<Long> due = jdbc.queryForList(
+                "SELECT id FROM email_outbox WHERE state = :state AND next_attempt_at <= :now "
+                        + "ORDER BY next_attempt_at LIMIT " + POLL_BATCH,
+                new MapSqlParameterSource()
+                        .addValue("state", PENDING)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now())),
+                Long.class);
+        for (Long id : due) {
+            dispatchers.execute(() -> deliver(id));
+        }
+    }
+
+    private void deliver(long id) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        // Claim: only the dispatcher whose UPDATE hits the row sends it
+        int claimed = jdbc.update("UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = :lease "
+                        + "WHERE id = :id AND state = :state AND next_attempt_at <= :now",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("state", PENDING)
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("lease", Timestamp.valueOf(now.plusSeconds(LEASE_SECONDS))));
+        if (claimed == 0) {
+            return;
+        }
+
+        Row row = jdbc.queryForObject("SELECT kind, order_id, recipient, order_status, attempts FROM email_outbox WHERE id = :id",
+                new MapSqlParameterSource("id", id),
+                (rs, n) -> new Row(rs.getString(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getInt(5)));
+
+        try {
+            Order order = orderRepository.findWithItemsById(row.orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+            if (ORDER_PLACED.equals(row.kind)) {
+                emailService.sendOrderPlacedEmail(order, row.recipient);
+            } else {
+                emailService.sendOrderStatusUpdateEmail(order, row.recipient, row.status);
+            }
+            jdbc.update("UPDATE email_outbox SET state = :state, sent_at = :now, last_error = NULL WHERE id = :id",
+                    new MapSqlParameterSource()
+                            .addValue("id", id)
+                            .addValue("state", SENT)
+                            .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+        } catch (Exception e) {
+            fail(id, row.attempts, e);
+        }
+    }
+
+    private void fail(long id, int attempts, Exception e) {
+
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        boolean dead = attempts >= maxAttempts;
+        // 30 s, 60 s, 120 s ... capped, with some jitter so retries don't all land together
+        long delay = Math.min(backoffSeconds << Math.min(attempts - 1, 20), MAX_BACKOFF_SECONDS);
+        delay += ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+
+        jdbc.update("UPDATE email_outbox SET state = :state, next_attempt_at = :next, last_error = :error WHERE id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("state", dead ? DEAD : PENDING)
+                        .addValue("next", Timestamp.valueOf(LocalDateTime.now().plusSeconds(delay)))
+                        .addValue("error", error));
+
+        System.out.println((dead ? "❌ Email dead-lettered" : "⚠️ Email will be retried")
+                + " (outbox #" + id + ", attempt " + attempts + "): " + error);
+    }
+
+    // ======================================================
+    // DEAD LETTERS (ADMIN)
+    // ======================================================
+
+    public List<OutboxEntryResponse> deadLetters() {
+        return jdbc.query("SELECT id, kind, order_id, recipient, attempts, last_error, created_at FROM email_outbox "
+                        + "WHERE state = :state ORDER BY id DESC LIMIT 500",
+                new MapSqlParameterSource("state", DEAD),
+                (rs, n) -> new OutboxEntryResponse(rs.getLong("id"), rs.getString("kind"), rs.getLong("order_id"),
+                        rs.getString("recipient"), rs.getInt("attempts"), rs.getString("last_error"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    /**
+     * Put a dead row back in the queue with a fresh set of attempts.
+     */
+    public void retry(long id) {
+        int updated = jdbc.update("UPDATE email_outbox SET state = :pending, attempts = 0, next_attempt_at = :now "
+                        + "WHERE id = :id AND state = :dead",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("pending", PENDING)
+                        .addValue("dead", DEAD)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Dead email not found");
+        }
+        dispatchers.execute(() -> deliver(id));
+    }
+
+    private static final class Row {
+        final String kind;
+        final long orderId;
+        final String recipient;
+        final String status;
+        final int attempts;
+
+        Row(String kind, long orderId, String recipient, String status, int attempts) {
+            this.kind = kind;
+            this.orderId = orderId;
+            this.recipient = recipient;
+            this.status = status;
+            this.attempts = attempts;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.food.foodorder.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Email templates, parsed once at startup and rendered per message.
+ *
+ * Every email is three files under {@code templates/email/}:
+ * {@code <name>.subject.txt}, {@code <name>.txt} and {@code <name>.html}.
+ * They use a small mustache-like syntax: {@code {{value}}} (HTML-escaped in
+ * .html files), {@code {{{value}}}} (never escaped), {@code {{#list}}...{{/list}}}
+ * (repeated per element, or shown once if truthy) and
+ * {@code {{^value}}...{{/value}}} (shown if missing, false or empty).
+ *
+ * Each file is compiled into a tree of text / value / section nodes, so a
+ * send only walks the tree. A broken template fails startup rather than the
+ * first send.
+ */
+@Service
+public class EmailTemplates {
+
+    private static final String LOCATION = "classpath:templates/email/";
+
+    // file name (e.g. "order-placed.html") → compiled template
+    private final Map<String, Node[]> templates = new HashMap<>();
+
+    @PostConstruct
+    public void compileAll() throws IOException {
+        Resource[] files = new PathMatchingResourcePatternResolver().getResources(LOCATION + "*.*");
+        for (Resource file : files) {
+            String name = file.getFilename();
+            try (InputStream in = file.getInputStream()) {
+                compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        System.out.println("✅ Email templates compiled: " + templates.size());
+    }
+
+    // .html files escape {{value}}, the others don't
+    void compile(String file, String source) {
+        templates.put(file, parse(source, file.endsWith(".html"), file));
+    }
+
+    /**
+     * Subject, plain text and HTML of email {@code name} for this model.
+     */
+    public RenderedEmail render(String name, Map<String, Object> model) {
+        return new RenderedEmail(
+                renderFile(name + ".subject.txt", model).trim(),
+                renderFile(name + ".txt", model),
+                renderFile(name + ".html", model));
+    }
+
+    String renderFile(String file, Map<String, Object> model) {
+
+        Node[] template = templates.get(file);
+        if (template == null) {
+            throw new IllegalStateException("Email template not found: " + file);
+        }
+
+        StringBuilder out = new StringBuilder(1024);
+        Deque<Object> context = new ArrayDeque<>();
+        context.push(model);
+        renderNodes(template, context, out);
+        return out.toString();
+    }
+
+    // ======================================================
+    // RENDER TREE
+    // ======================================================
+
+    private interface Node {
+        void render(Deque<Object> context, StringBuilder out);
+    }
+
+    private static void renderNodes(Node[] nodes, Deque<Object> context, StringBuilder out) {
+        for (Node node : nodes) {
+            node.render(context, out);
+        }
+    }
+
+    private record Text(String text) implements Node {
+        public void render(Deque<Object> context, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private record Value(String name, boolean escape) implements Node {
+        public void render(Deque<Object> context, StringBuilder out) {
+            Object value = lookup(context, name);
+            if (value == null) {
+                return;
+            }
+            if (escape) {
+                escapeHtml(String.valueOf(value), out);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private record Section(String name, boolean inverted, Node[] children) implements Node {
+        public void render(Deque<Object> context, StringBuilder out) {
+            Object value = lookup(context, name);
+            boolean present = value != null
+                    && !Boolean.FALSE.equals(value)
+                    && !(value instanceof Collection<?> c && c.isEmpty());
+
+            if (inverted) {
+                if (!present) {
+                    renderNodes(children, context, out);
+                }
+                return;
+            }
+            if (!present) {
+                return;
+            }
+            if (value instanceof Collection<?> items) {
+                for (Object item : items) {
+                    context.push(item);
+                    renderNodes(children, context, out);
+                    context.pop();
+                }
+            } else {
+                context.push(value);
+                renderNodes(children, context, out);
+                context.pop();
+            }
+        }
+    }
+
+    // Innermost context first; "." is the current element
+    private static Object lookup(Deque<Object> context, String name) {
+        if (".".equals(name)) {
+            return context.peek();
+        }
+        for (Object scope : context) {
+            if (scope instanceof Map<?, ?> map && map.containsKey(name)) {
+                return map.get(name);
+            }
+        }
+        return null;
+    }
+
+    private static void escapeHtml(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    // ======================================================
+    // COMPILER
+    // ======================================================
+
+    private static Node[] parse(String source, boolean html, String file) {
+
+        // Open sections: name + the nodes collected inside it so far
+        Deque<String> openNames = new ArrayDeque<>();
+        Deque<List<Node>> levels = new ArrayDeque<>();
+        Deque<Boolean> openInverted = new ArrayDeque<>();
+        levels.push(new ArrayList<>());
+
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                levels.peek().add(new Text(source.substring(pos)));
+                break;
+            }
+
+            boolean triple = source.startsWith("{{{", open);
+            String closeTag = triple ? "}}}" : "}}";
+            int close = source.indexOf(closeTag, open);
+            if (close < 0) {
+                throw new IllegalStateException(file + ": unclosed tag at offset " + open);
+            }
+            String tag = source.substring(open + (triple ? 3 : 2), close).trim();
+            int end = close + closeTag.length();
+
+            // A section/comment tag alone on its line takes the whole line with it (no blank lines in text mail)
+            int textEnd = open;
+            if (!triple && !tag.isEmpty() && "#^/!".indexOf(tag.charAt(0)) >= 0) {
+                int lineStart = source.lastIndexOf('\n', open - 1) + 1;
+                int lineEnd = source.indexOf('\n', end);
+                if (lineEnd < 0) {
+                    lineEnd = source.length();
+                }
+                if (lineStart >= pos
+                        && source.substring(lineStart, open).isBlank()
+                        && source.substring(end, lineEnd).isBlank()) {
+                    textEnd = lineStart;
+                    end = Math.min(lineEnd + 1, source.length());
+                }
+            }
+            if (textEnd > pos) {
+                levels.peek().add(new Text(source.substring(pos, textEnd)));
+            }
+            pos = end;
+
+            if (triple) {
+                levels.peek().add(new Value(tag, false));
+            } else if (tag.startsWith("#") || tag.startsWith("^")) {
+                openNames.push(tag.substring(1).trim());
+                openInverted.push(tag.startsWith("^"));
+                levels.push(new ArrayList<>());
+            } else if (tag.startsWith("/")) {
+                String name = tag.substring(1).trim();
+                if (openNames.isEmpty() || !openNames.peek().equals(name)) {
+                    throw new IllegalStateException(file + ": unexpected {{/" + name + "}}");
+                }
+                Node[] children = levels.pop().toArray(new Node[0]);
+                levels.peek().add(new Section(openNames.pop(), openInverted.pop(), children));
+            } else if (!tag.startsWith("!")) {
+                levels.peek().add(new Value(tag, html));
+            }
+        }
+
+        if (!openNames.isEmpty()) {
+            throw new IllegalStateException(file + ": unclosed {{#" + openNames.peek() + "}}");
+        }
+        return levels.pop().toArray(new Node[0]);
+    }
+
+    public static final class RenderedEmail {
+        private final String subject;
+        private final String text;
+        private final String html;
+
+        RenderedEmail(String subject, String text, String html) {
+            this.subject = subject;
+            this.text = text;
+            this.html = html;
+        }
+
+        public String getSubject() { return subject; }
+        public String getText() { return text; }
+        public String getHtml() { return html; }
+    }
+}
@@ -0,0 +1,332 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.food.foodorder.entity.Food;
+
+/**
+ * Immutable facet index: one compressed bitmap of product ids per category,
+ * status, active flag and in-stock bucket.
+ *
+ * A filter is an intersection of bitmaps (values within one facet are OR-ed),
+ * and each facet's counts are taken against the other facets' filters only,
+ * so the UI can show how many results every checkbox would give. Patches
+ * clone just the bitmaps a change touches; the rest are shared with the
+ * previous index.
+ *
+ * Bitmaps hold int ids: a product whose id falls outside 0..Integer.MAX_VALUE
+ * is left out of the index (it never matches a facet filter) rather than
+ * failing every catalog read.
+ */
+final class FacetIndex {
+
+    static final String CATEGORY = "category";
+    static final String STATUS = "status";
+    static final String ACTIVE = "active";
+    static final String IN_STOCK = "inStock";
+
+    private final RoaringBitmap all;
+
+    // Keyed by normalized category, labels keep the first spelling seen
+    private final Map<String, RoaringBitmap> categories;
+    private final Map<String, String> categoryLabels;
+
+    // Keyed by upper-cased status (AVAILABLE, OUT_OF_STOCK, ...)
+    private final Map<String, RoaringBitmap> statuses;
+
+    private final RoaringBitmap active;
+    private final RoaringBitmap inStock;
+
+    private FacetIndex(RoaringBitmap all,
+                       Map<String, RoaringBitmap> categories,
+                       Map<String, String> categoryLabels,
+                       Map<String, RoaringBitmap> statuses,
+                       RoaringBitmap active,
+                       RoaringBitmap inStock) {
+        this.all = all;
+        this.categories = categories;
+        this.categoryLabels = categoryLabels;
+        this.statuses = statuses;
+        this.active = active;
+        this.inStock = inStock;
+    }
+
+    static FacetIndex build(Collection<Food> foods) {
+        FacetIndex empty = new FacetIndex(
+                new RoaringBitmap(), Map.of(), Map.of(), Map.of(), new RoaringBitmap(), new RoaringBitmap());
+        return empty.withChanges(List.of(), foods);
+    }
+
+    // ======================================================
+    // QUERY
+    // ======================================================
+
+    /**
+     * Filter on any combination of facets; a null or empty argument leaves that facet open.
+     */
+    Result filter(Collection<String> categoryValues,
+                  Collection<String> statusValues,
+                  Boolean activeValue,
+                  Boolean inStockValue) {
+
+        RoaringBitmap categoryFilter = anyOf(categories, categoryValues, CatalogSnapshot::categoryKey);
+        RoaringBitmap statusFilter = anyOf(statuses, statusValues, FacetIndex::statusKey);
+        RoaringBitmap activeFilter = flag(active, activeValue);
+        RoaringBitmap inStockFilter = flag(inStock, inStockValue);
+
+        RoaringBitmap matches = intersect(categoryFilter, statusFilter, activeFilter, inStockFilter);
+
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+
+        RoaringBitmap withoutCategory = intersect(null, statusFilter, activeFilter, inStockFilter);
+        Map<String, Long> byCategory = new TreeMap<>();
+        categories.forEach((key, ids) -> {
+            long n = RoaringBitmap.andCardinality(withoutCategory, ids);
+            if (n > 0) {
+                byCategory.put(categoryLabels.getOrDefault(key, key), n);
+            }
+        });
+        counts.put(CATEGORY, byCategory);
+
+        RoaringBitmap withoutStatus = intersect(categoryFilter, null, activeFilter, inStockFilter);
+        Map<String, Long> byStatus = new TreeMap<>();
+        statuses.forEach((key, ids) -> {
+            long n = RoaringBitmap.andCardinality(withoutStatus, ids);
+            if (n > 0) {
+                byStatus.put(key, n);
+            }
+        });
+        counts.put(STATUS, byStatus);
+
+        counts.put(ACTIVE, flagCounts(intersect(categoryFilter, statusFilter, null, inStockFilter), active));
+        counts.put(IN_STOCK, flagCounts(intersect(categoryFilter, statusFilter, activeFilter, null), inStock));
+
+        return new Result(matches, counts);
+    }
+
+    private RoaringBitmap anyOf(Map<String, RoaringBitmap> buckets,
+                                Collection<String> values,
+                                Function<String, String> normalize) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        List<RoaringBitmap> selected = new ArrayList<>();
+        for (String value : values) {
+            RoaringBitmap ids = buckets.get(normalize.apply(value));
+            if (ids != null) {
+                selected.add(ids);
+            }
+        }
+        return selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator());
+    }
+
+    private RoaringBitmap flag(RoaringBitmap set, Boolean value) {
+        if (value == null) {
+            return null;
+        }
+        return value ? set : RoaringBitmap.andNot(all, set);
+    }
+
+    // AND of the non-null filters; the whole catalog when none is set
+    private RoaringBitmap intersect(RoaringBitmap... filters) {
+        List<RoaringBitmap> set = new ArrayList<>(filters.length);
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                set.add(filter);
+            }
+        }
+        if (set.isEmpty()) {
+            return all;
+        }
+        if (set.size() == 1) {
+            return set.get(0);
+        }
+        return FastAggregation.and(set.iterator());
+    }
+
+    private static Map<String, Long> flagCounts(RoaringBitmap base, RoaringBitmap set) {
+        long yes = RoaringBitmap.andCardinality(base, set);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("true", yes);
+        counts.put("false", base.getLongCardinality() - yes);
+        return counts;
+    }
+
+    // ======================================================
+    // PATCH
+    // ======================================================
+
+    /**
+     * New index with the given products' old versions removed and new versions added.
+     */
+    FacetIndex withChanges(Collection<Food> removed, Collection<Food> added) {
+
+        if (removed.isEmpty() && added.isEmpty()) {
+            return this;
+        }
+
+        Patch patch = new Patch();
+
+        for (Food food : removed) {
+            if (!indexable(food.getId())) {
+                continue;
+            }
+            int id = food.getId().intValue();
+            patch.all.remove(id);
+            patch.bucket(patch.categories, CatalogSnapshot.categoryKey(food.getCategory())).remove(id);
+            patch.bucket(patch.statuses, statusKey(food.getStatus())).remove(id);
+            patch.active.remove(id);
+            patch.inStock.remove(id);
+        }
+
+        for (Food food : added) {
+            if (!indexable(food.getId())) {
+                continue;
+            }
+            int id = food.getId().intValue();
+            String categoryKey = CatalogSnapshot.categoryKey(food.getCategory());
+            patch.all.add(id);
+            patch.bucket(patch.categories, categoryKey).add(id);
+            if (!categoryKey.isEmpty()) {
+                patch.categoryLabels.putIfAbsent(categoryKey, food.getCategory().trim());
+            }
+            patch.bucket(patch.statuses, statusKey(food.getStatus())).add(id);
+            if (Boolean.TRUE.equals(food.isActive())) {
+                patch.active.add(id);
+            }
+            if (food.getStock() > 0) {
+                patch.inStock.add(id);
+            }
+        }
+
+        return patch.freeze();
+    }
+
+    private static boolean indexable(Long id) {
+        return id != null && id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Whether two versions of a product sit in different buckets (stock only counts as in / out).
+     */
+    static boolean facetFieldsDiffer(Food a, Food b) {
+        return !CatalogSnapshot.categoryKey(a.getCategory()).equals(CatalogSnapshot.categoryKey(b.getCategory()))
+                || !statusKey(a.getStatus()).equals(statusKey(b.getStatus()))
+                || Boolean.TRUE.equals(a.isActive()) != Boolean.TRUE.equals(b.isActive())
+                || (a.getStock() > 0) != (b.getStock() > 0);
+    }
+
+    static String statusKey(String status) {
+        return status == null ? "" : status.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Mutable copy used while applying one batch of changes
+    private final class Patch {
+
+        final RoaringBitmap all = FacetIndex.this.all.clone();
+        final RoaringBitmap active = FacetIndex.this.active.clone();
+        final RoaringBitmap inStock = FacetIndex.this.inStock.clone();
+        final Map<String, RoaringBitmap> categories = new HashMap<>(FacetIndex.this.categories);
+        final Map<String, RoaringBitmap> statuses = new HashMap<>(FacetIndex.this.statuses);
+        final Map<String, String> categoryLabels = new HashMap<>(FacetIndex.this.categoryLabels);
+
+        // Buckets already cloned in this patch
+        private final Set<RoaringBitmap> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        RoaringBitmap bucket(Map<String, RoaringBitmap> target, String key) {
+            RoaringBitmap ids = target.get(key);
+            if (ids == null || !owned.contains(ids)) {
+                ids = ids == null ? new RoaringBitmap() : ids.clone();
+                owned.add(ids);
+                target.put(key, ids);
+            }
+            return ids;
+        }
+
+        FacetIndex freeze() {
+            Set<String> emptied = new HashSet<>();
+            categories.forEach((key, ids) -> {
+                if (ids.isEmpty()) {
+                    emptied.add(key);
+                }
+            });
+            categories.keySet().removeAll(emptied);
+            categoryLabels.keySet().removeAll(emptied);
+            statuses.values().removeIf(RoaringBitmap::isEmpty);
+
+            for (RoaringBitmap ids : owned) {
+                ids.runOptimize();
+            }
+            all.runOptimize();
+            active.runOptimize();
+            inStock.runOptimize();
+
+            return new FacetIndex(
+                    all,
+                    Collections.unmodifiableMap(categories),
+                    Collections.unmodifiableMap(categoryLabels),
+                    Collections.unmodifiableMap(statuses),
+                    active,
+                    inStock
+            );
+        }
+    }
+
+    // ======================================================
+    // RESULT
+    // ======================================================
+
+    static final class Result {
+
+        private final RoaringBitmap matches;
+        private final Map<String, Map<String, Long>> counts;
+
+        private Result(RoaringBitmap matches, Map<String, Map<String, Long>> counts) {
+            this.matches = matches;
+            this.counts = counts;
+        }
+
+        long total() {
+            return matches.getLongCardinality();
+        }
+
+        Map<String, Map<String, Long>> counts() {
+            return counts;
+        }
+
+        /**
+         * Up to {@code limit} matching ids greater than {@code afterId}, ascending.
+         */
+        List<Long> idsAfter(long afterId, int limit) {
+            // Indexed ids fit in an int (see withChanges): nothing can come after a larger cursor
+            if (afterId >= Integer.MAX_VALUE) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(limit);
+            PeekableIntIterator it = matches.getIntIterator();
+            if (afterId >= 0) {
+                it.advanceIfNeeded(Math.toIntExact(afterId + 1));
+            }
+            while (it.hasNext() && ids.size() < limit) {
+                ids.add((long) it.next());
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.food.foodorder.exception.ConflictException;
+import com.food.foodorder.exception.ResourceNotFoundException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Flash-sale mode for hot products: stock held in memory instead of the
+ * contended stock rows.
+ *
+ * Checkout takes units from an atomic counter per flagged product and appends
+ * one row per line to {@code flash_sale_journal} in the order's transaction,
+ * so the journal holds exactly the committed reservations not yet applied to
+ * the stock slots. A scheduled flush folds the journal into one write-back
+ * per product and deletes the rows it applied. After a restart, counters are
+ * rebuilt as stock minus the journal, so nothing is lost or applied twice.
+ *
+ * Turning the sale off closes the counter first: once every reservation
+ * already taken from it has its journal row, checkouts of the product go
+ * back to the stock slots, applying its journal in their own transaction
+ * until the admin's flush has caught up.
+ *
+ * Counters are local to this instance: flagged products must only be sold
+ * through one instance while the sale is on.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class FlashSaleInventory {
+
+    // Journal rows applied per flush transaction
+    private static final int FLUSH_BATCH_SIZE = 5000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final InventorySlots inventorySlots;
+
+    // foodId → counter (present = flash sale on, or being turned off if closed)
+    private final Map<Long, Counter> available = new ConcurrentHashMap<>();
+
+    public FlashSaleInventory(NamedParameterJdbcTemplate jdbc,
+                              TransactionTemplate transactionTemplate,
+                              InventorySlots inventorySlots) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.inventorySlots = inventorySlots;
+    }
+
+    @PostConstruct
+    public void recover() {
+
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS flash_sale_items ("
+                + "food_id BIGINT NOT NULL PRIMARY KEY)");
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS flash_sale_journal ("
+                + "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                + "food_id BIGINT NOT NULL, "
+                + "quantity BIGINT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+
+        for (Long foodId : jdbc.queryForList("SELECT food_id FROM flash_sale_items", Map.of(), Long.class)) {
+            available.put(foodId, new Counter(stockInDatabase(foodId)));
+        }
+
+        if (!available.isEmpty()) {
+            System.out.println("✅ Flash sale counters restored for " + available.size() + " products");
+        }
+    }
+
+    // ======================================================
+    // ADMIN
+    // ======================================================
+
+    public Map<Long, Long> getCounters() {
+        Map<Long, Long> counters = new TreeMap<>();
+        available.forEach((foodId, counter) -> counters.put(foodId, counter.units.get()));
+        return counters;
+    }
+
+    /**
+     * Turn flash-sale mode on; returns the units on the counter. A product already
+     * in a sale keeps its live counter (rebuilding it from the database would not
+     * see reservations still in flight).
+     */
+    public long enable(Long foodId) {
+
+        Counter current = available.get(foodId);
+        if (current != null) {
+            if (current.isClosed()) {
+                throw new ConflictException("Flash sale is still being turned off for this product");
+            }
+            return current.units.get();
+        }
+
+        Long stock = transactionTemplate.execute(status -> {
+            jdbc.update("INSERT IGNORE INTO flash_sale_items (food_id) VALUES (:id)", Map.of("id", foodId));
+            return stockInDatabase(foodId);
+        });
+        Counter mine = new Counter(stock == null ? 0 : stock);
+        Counter winner = available.putIfAbsent(foodId, mine);
+        return (winner != null ? winner : mine).units.get();
+    }
+
+    /**
+     * Back to plain database stock. The counter is closed first and the product's
+     * reservations are written out before it is dropped; checkouts in between go
+     * to the stock slots (see {@link #journaled}).
+     */
+    public void disable(Long foodId) {
+
+        Counter counter = available.get(foodId);
+        if (counter != null) {
+            counter.close();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbc.update("DELETE FROM flash_sale_items WHERE food_id = :id", Map.of("id", foodId));
+            flushProducts(List.of(foodId));
+        });
+
+        if (counter != null) {
+            available.remove(foodId, counter);
+        }
+    }
+
+    // ======================================================
+    // CHECKOUT
+    // ======================================================
+
+    public boolean isEnabled(Long foodId) {
+        Counter counter = available.get(foodId);
+        return counter != null && !counter.isClosed();
+    }
+
+    /**
+     * Of these products, the ones whose sold units may still be in the journal
+     * (sale on, or being turned off): flush them before writing their slots directly.
+     */
+    List<Long> journaled(Collection<Long> foodIds) {
+        List<Long> ids = new ArrayList<>();
+        for (Long foodId : foodIds) {
+            if (available.containsKey(foodId)) {
+                ids.add(foodId);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Take the flash-sale lines from the counters and journal them in the caller's
+     * transaction; the other lines are handed back for the stock slots. If a
+     * counter is short nothing is taken. A rollback of the caller's transaction
+     * puts the units back.
+     */
+    Reservation tryReserve(Map<Long, Long> quantities) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Flash sale reservations must run in a transaction");
+        }
+
+        Map<Long, Long> rest = new HashMap<>();
+        Map<Long, Long> taken = new HashMap<>();
+        Map<Long, Counter> counters = new HashMap<>();
+        try {
+            for (Map.Entry<Long, Long> line : new TreeMap<>(quantities).entrySet()) {
+                Counter counter = available.get(line.getKey());
+                if (counter == null || !counter.open()) {
+                    rest.put(line.getKey(), line.getValue());
+                    continue;
+                }
+                counters.put(line.getKey(), counter);
+                if (!take(counter.units, line.getValue())) {
+                    release(taken, counters);
+                    return new Reservation(line.getKey(), Map.of());
+                }
+                taken.put(line.getKey(), line.getValue());
+            }
+
+            if (!taken.isEmpty()) {
+                journal(taken, counters);
+            }
+            return new Reservation(null, rest);
+
+        } finally {
+            // Journal rows are written (or nothing was taken): a closing counter may finish now
+            counters.values().forEach(Counter::written);
+        }
+    }
+
+    private void journal(Map<Long, Long> taken, Map<Long, Counter> counters) {
+
+        List<SqlParameterSource> rows = new ArrayList<>(taken.size());
+        taken.forEach((foodId, quantity) -> rows.add(new MapSqlParameterSource()
+                .addValue("foodId", foodId)
+                .addValue("quantity", quantity)));
+        try {
+            jdbc.batchUpdate("INSERT INTO flash_sale_journal (food_id, quantity) VALUES (:foodId, :quantity)",
+                    rows.toArray(new SqlParameterSource[0]));
+        } catch (RuntimeException e) {
+            release(taken, counters);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(taken, counters);
+                }
+            }
+        });
+    }
+
+    /**
+     * Units given back to the slots (released holds) also go back on the counter,
+     * once the caller's transaction commits.
+     */
+    void returnUnits(Long foodId, long quantity) {
+        adjust(Map.of(foodId, quantity));
+    }
+
+    /**
+     * Move the counters by these stock changes (foodId → delta) once the caller's
+     * transaction commits; products not in a sale are ignored.
+     */
+    void adjust(Map<Long, Long> changes) {
+        Map<Long, Long> units = new HashMap<>();
+        changes.forEach((foodId, delta) -> {
+            if (isEnabled(foodId) && delta != 0) {
+                units.put(foodId, delta);
+            }
+        });
+        if (units.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(units);
+                }
+            });
+        } else {
+            add(units);
+        }
+    }
+
+    private static boolean take(AtomicLong units, long quantity) {
+        while (true) {
+            long current = units.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (units.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    // Back on the counters they were taken from (not a newer counter for the same product)
+    private static void release(Map<Long, Long> taken, Map<Long, Counter> counters) {
+        taken.forEach((foodId, quantity) -> counters.get(foodId).units.addAndGet(quantity));
+    }
+
+    private void add(Map<Long, Long> units) {
+        units.forEach((foodId, quantity) -> {
+            Counter counter = available.get(foodId);
+            if (counter != null) {
+                counter.units.addAndGet(quantity);
+            }
+        });
+    }
+
+    // ======================================================
+    // WRITE-BACK
+    // ======================================================
+
+    /**
+     * Apply journaled reservations to the stock slots: one write-back per product per batch.
+     */
+    @Scheduled(fixedDelayString = "${app.flash-sale.flush-interval-ms:500}")
+    public void flush() {
+        Integer applied;
+        do {
+            applied = transactionTemplate.execute(status -> flushBatch());
+        } while (applied != null && applied == FLUSH_BATCH_SIZE);
+    }
+
+    private int flushBatch() {
+
+        // Row locks keep a concurrent flush (admin disable, checkout) from applying the same rows
+        List<long[]> rows = jdbc.query(
+                "SELECT id, food_id, quantity FROM flash_sale_journal ORDER BY id LIMIT :limit FOR UPDATE",
+                Map.of("limit", FLUSH_BATCH_SIZE),
+                (rs, n) -> new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3) });
+
+        apply(rows);
+        return rows.size();
+    }
+
+    /**
+     * Apply these products' journaled reservations now, in the caller's transaction,
+     * so a stock overwrite that follows replaces units already sold instead of
+     * having them subtracted from the new total later.
+     */
+    void flushProducts(Collection<Long> foodIds) {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Flash sale write-back must run in a transaction");
+        }
+        if (foodIds.isEmpty()) {
+            return;
+        }
+        apply(jdbc.query(
+                "SELECT id, food_id, quantity FROM flash_sale_journal WHERE food_id IN (:ids) ORDER BY id FOR UPDATE",
+                Map.of("ids", foodIds),
+                (rs, n) -> new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3) }));
+    }
+
+    // Rows are {id, foodId, quantity}
+    private void apply(List<long[]> rows) {
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> totals = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (long[] row : rows) {
+            ids.add(row[0]);
+            totals.merge(row[1], row[2], Long::sum);
+        }
+
+        totals.forEach(inventorySlots::remove);
+
+        jdbc.update("DELETE FROM flash_sale_journal WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+
+    // Slot stock minus reservations not written back yet
+    private long stockInDatabase(Long foodId) {
+        List<Long> stock = jdbc.queryForList(
+                "SELECT COALESCE((SELECT SUM(s.stock) FROM inventory_slots s WHERE s.food_id = f.id), 0) "
+                        + "- COALESCE((SELECT SUM(j.quantity) FROM flash_sale_journal j WHERE j.food_id = f.id), 0) "
+                        + "FROM foods f WHERE f.id = :id",
+                Map.of("id", foodId), Long.class);
+        if (stock.isEmpty()) {
+            throw new ResourceNotFoundException("Food not found");
+        }
+        return Math.max(0, stock.get(0));
+    }
+
+    /**
+     * Result of {@link #tryReserve}.
+     */
+    static final class Reservation {
+        // First product whose counter is short (nothing was taken), or null
+        final Long shortOf;
+        // Lines not in a flash sale: take them from the stock slots
+        final Map<Long, Long> rest;
+
+        Reservation(Long shortOf, Map<Long, Long> rest) {
+            this.shortOf = shortOf;
+            this.rest = rest;
+        }
+    }
+
+    private static final class Counter {
+        final AtomicLong units;
+
+        // Reservations taken whose journal row isn't written yet; guarded by this
+        private int writing;
+        private boolean closed;
+
+        Counter(long units) {
+            this.units = new AtomicLong(units);
+        }
+
+        synchronized boolean open() {
+            if (closed) {
+                return false;
+            }
+            writing++;
+            return true;
+        }
+
+        synchronized void written() {
+            if (--writing == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        // No new reservations; returns once every reservation taken has its journal row
+        synchronized void close() {
+            closed = true;
+            boolean interrupted = false;
+            while (writing > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,26 +1,69 @@
 package com.food.foodorder.service;
 
+import java.util.Collection;
 import java.util.List;
+
+import com.food.foodorder.dto.BatchResponse;
+import com.food.foodorder.dto.FacetResponse;
+import com.food.foodorder.dto.FoodCardResponse;
+import com.food.foodorder.dto.FoodDetailResponse;
+import com.food.foodorder.dto.FoodListResponse;
+import com.food.foodorder.dto.PageResponse;
+import com.food.foodorder.dto.SuggestionResponse;
 import com.food.foodorder.entity.Food;
 
 public interface FoodService {
 
     Food addFood(Food food);
 
-    List<Food> getAllFoods();
+    List<FoodListResponse> getAllFoods();
+
+    FoodDetailResponse getFoodById(Long id);
 
-    Food getFoodById(Long id);
+    // ✅ Multi-get (cart, wishlist, recently viewed): request order kept, unknown ids reported
+    BatchResponse<FoodCardResponse> getFoodsByIds(List<Long> ids);
     
     Food updateFood(Long id, Food food);
 
+    // ✅ ADMIN: full product update (price, stock, status, active)
+    Food updateProduct(Long id, Food food);
+
 
     void deleteFood(Long id);
 
-    List<Food> getFoodByCategory(String category);
+    List<FoodListResponse> getFoodByCategory(String category);
 
     // ✅ ADD THIS
     List<Food> addAllFoods(List<Food> foods);
 
     // ✅ Search foods by query
-    List<Food> searchFoods(String query);
+    List<FoodCardResponse> searchFoods(String query);
+
+    // ✅ Search foods, optionally tolerating typos ("tamato" → Tomato)
+    List<FoodCardResponse> searchFoods(String query, boolean fuzzy);
+
+    // ✅ Keyset page (sort: id, price, price_desc, name, popularity, newest; category optional)
+    PageResponse<FoodListResponse> getFoodsPage(String category, String sort, String cursor, int limit);
+
+    // ✅ Most sold active products of a category (null = whole catalog)
+    List<FoodCardResponse> getBestSellers(String category, int limit);
+
+    // ✅ Faceted filter (bitmap intersections) with per-facet counts, paged by id
+    FacetResponse filterFoods(List<String> categories, List<String> statuses,
+                              Boolean active, Boolean inStock, Long afterId, int limit);
+
+    // ✅ Catalog snapshot version (bumped on every write)
+    long getCatalogVersion();
+
+    // ✅ Refresh snapshot stock of these products after the current transaction commits
+    void applyStockChanges(Collection<Long> foodIds);
+
+    // ✅ Refresh snapshot stock + popularity of these products after a committed order
+    void applySales(Collection<Long> foodIds);
+
+    // ✅ Autocomplete: top products/categories for a prefix, by popularity
+    List<SuggestionResponse> suggest(String prefix, int limit);
+
+    // ✅ Rebuild snapshot from the database
+    void reloadCatalog();
 }
@@ -1,51 +1,137 @@
 package com.food.foodorder.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.food.foodorder.dto.BatchResponse;
+import com.food.foodorder.dto.CatalogSort;
+import com.food.foodorder.dto.FacetResponse;
+import com.food.foodorder.dto.FoodCardResponse;
+import com.food.foodorder.dto.FoodDetailResponse;
+import com.food.foodorder.dto.FoodListResponse;
+import com.food.foodorder.dto.PageResponse;
+import com.food.foodorder.dto.SuggestionResponse;
 import com.food.foodorder.entity.Food;
+import com.food.foodorder.entity.StockMovement;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.exception.ResourceNotFoundException;
 import com.food.foodorder.repository.FoodRepository;
+import com.food.foodorder.repository.OrderItemRepository;
 
 @Service
 public class FoodServiceImpl implements FoodService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_BATCH_SIZE = 200;
+
     @Autowired
     private FoodRepository foodRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private InventorySlots inventorySlots;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    // Published catalog; readers never lock. Null until first read.
+    private volatile CatalogSnapshot catalog;
+
+    // Serializes snapshot publication (writers only)
+    private final Object catalogLock = new Object();
+
     @Override
+    @Transactional
     public Food addFood(Food food) {
-        return foodRepository.save(food);
+        Food saved = foodRepository.save(food);
+        inventoryService.setStock(Map.of(saved.getId(), saved.getStock()), StockMovement.ADJUST);
+        publish(snapshot -> snapshot.withFood(snapshot.version() + 1, saved));
+        return saved;
     }
 
     @Override
-    public List<Food> getAllFoods() {
-        return foodRepository.findAll();
+    public List<FoodListResponse> getAllFoods() {
+        return listRows(catalog().foods());
     }
 
     @Override
-    public Food getFoodById(Long id) {
-        return foodRepository.findById(id).orElse(null);
+    public FoodDetailResponse getFoodById(Long id) {
+        Food food = catalog().get(id);
+        return food == null ? null : FoodDetailResponse.from(food);
     }
 
     @Override
+    public BatchResponse<FoodCardResponse> getFoodsByIds(List<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            return new BatchResponse<>(List.of(), List.of());
+        }
+
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " ids per request");
+        }
+
+        // Served from one snapshot, so all items come from the same catalog version
+        CatalogSnapshot snapshot = catalog();
+        List<FoodCardResponse> items = new ArrayList<>(unique.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : unique) {
+            Food food = snapshot.get(id);
+            if (food != null) {
+                items.add(FoodCardResponse.from(food));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResponse<>(items, missing);
+    }
+
+    @Override
+    @Transactional
     public void deleteFood(Long id) {
         foodRepository.deleteById(id);
+        inventorySlots.delete(List.of(id));
+        publish(snapshot -> snapshot.withoutFood(snapshot.version() + 1, id));
     }
 
     @Override
-    public List<Food> getFoodByCategory(String category) {
-        return foodRepository.findByCategory(category);
+    public List<FoodListResponse> getFoodByCategory(String category) {
+        return listRows(catalog().byCategory(category));
     }
 
     // ✅ MULTIPLE INSERT
     @Override
+    @Transactional
     public List<Food> addAllFoods(List<Food> foods) {
-        return foodRepository.saveAll(foods);
-        
+        List<Food> saved = foodRepository.saveAll(foods);
+        Map<Long, Long> stocks = new HashMap<>();
+        for (Food food : saved) {
+            stocks.put(food.getId(), food.getStock());
+        }
+        inventoryService.setStock(stocks, StockMovement.ADJUST);
+        publish(snapshot -> snapshot.withChanges(snapshot.version() + 1, saved, List.of()));
+        return saved;
     }
-    
+
     @Override
     public Food updateFood(Long id, Food food) {
 
@@ -58,28 +144,263 @@ public class FoodServiceImpl implements FoodService {
             existingFood.setCategory(food.getCategory());
            // existingFood.setImageUrl(food.getImageUrl());
 
-            return foodRepository.save(existingFood);
+            Food saved = foodRepository.save(existingFood);
+            publish(snapshot -> snapshot.withFood(snapshot.version() + 1, saved));
+            return saved;
         }
 
         return null;
     }
 
     @Override
-    public List<Food> searchFoods(String query) {
-        return foodRepository.searchFoods(query);
+    @Transactional
+    public Food updateProduct(Long id, Food food) {
+
+        Food existing = foodRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+
+        existing.setName(food.getName());
+        existing.setPrice(food.getPrice());
+        existing.setStock(food.getStock());
+        existing.setCategory(food.getCategory());
+        existing.setStatus(food.getStatus());
+        existing.setActive(food.isActive());
+
+        Food saved = foodRepository.save(existing);
+        inventoryService.setStock(Map.of(saved.getId(), saved.getStock()), StockMovement.ADJUST);
+        publish(snapshot -> snapshot.withFood(snapshot.version() + 1, saved));
+        return saved;
+    }
+
+    @Override
+    public List<FoodCardResponse> searchFoods(String query) {
+        return cards(catalog().search(query));
+    }
+
+    @Override
+    public List<FoodCardResponse> searchFoods(String query, boolean fuzzy) {
+        return cards(fuzzy ? catalog().searchFuzzy(query) : catalog().search(query));
     }
 
-    // @Override
-    // public Food getFoodById(Long id) {
-    //     // TODO Auto-generated method stub
-    //     throw new UnsupportedOperationException("Unimplemented method 'getFoodById'");
-    // }
+    // ======================================================
+    // KEYSET PAGINATION
+    // ======================================================
 
-    // @Override
-    // public void deleteFood(Long id) {
-    //     // TODO Auto-generated method stub
-    //     throw new UnsupportedOperationException("Unimplemented method 'deleteFood'");
-    // }
+    @Override
+    public PageResponse<FoodListResponse> getFoodsPage(String category, String sortParam, String cursorToken, int limit) {
 
-}
+        CatalogSort sort = CatalogSort.from(sortParam);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CatalogCursor cursor = cursorToken == null || cursorToken.isBlank()
+                ? null
+                : CatalogCursor.decode(cursorToken, sort);
+        String cat = category == null || category.isBlank() ? null : category;
+
+        // One extra row tells us whether another page exists
+        Pageable window = Pageable.ofSize(size + 1);
+
+        // Same category matching as the snapshot-served sorts (trimmed, case-insensitive)
+        String catKey = cat == null ? null : CatalogSnapshot.categoryKey(cat);
+
+        List<FoodListResponse> rows = switch (sort) {
+            case ID -> foodRepository.findPageById(
+                    catKey, cursor == null ? 0 : cursor.lastId, window);
+            case NAME -> foodRepository.findPageByName(
+                    catKey,
+                    cursor == null ? "" : cursor.lastValue,
+                    cursor == null ? 0 : cursor.lastId,
+                    window);
+            // Price, popularity and newest are slices of the snapshot's precomputed permutations
+            case PRICE_ASC, PRICE_DESC, POPULARITY, NEWEST -> listRows(catalog().sortedPage(sort, cat, cursor, size + 1));
+        };
+
+        boolean hasMore = rows.size() > size;
+        List<FoodListResponse> items = List.copyOf(hasMore ? rows.subList(0, size) : rows);
+        String next = hasMore ? cursorAfter(sort, items.get(items.size() - 1)).encode() : null;
+
+        return new PageResponse<>(items, next, size, sort.name());
+    }
+
+    private CatalogCursor cursorAfter(CatalogSort sort, FoodListResponse last) {
+        String value = switch (sort) {
+            case ID, NEWEST -> "";
+            case PRICE_ASC, PRICE_DESC -> Double.toString(last.getPrice() == null ? 0 : last.getPrice());
+            case NAME -> last.getName();
+            case POPULARITY -> Long.toString(catalog().unitsSold(last.getId()));
+        };
+        return new CatalogCursor(sort, last.getId(), value);
+    }
+
+    @Override
+    public List<FoodCardResponse> getBestSellers(String category, int limit) {
+
+        CatalogSnapshot snapshot = catalog();
+        List<FoodCardResponse> result = new ArrayList<>(limit);
+        CatalogCursor cursor = null;
+
+        while (result.size() < limit) {
+            List<Food> batch = snapshot.sortedPage(CatalogSort.POPULARITY, category, cursor, limit);
+            for (Food food : batch) {
+                if (Boolean.TRUE.equals(food.isActive()) && result.size() < limit) {
+                    result.add(FoodCardResponse.from(food));
+                }
+            }
+            if (batch.size() < limit) {
+                break;
+            }
+            Food last = batch.get(batch.size() - 1);
+            cursor = new CatalogCursor(CatalogSort.POPULARITY, last.getId(),
+                    Long.toString(snapshot.unitsSold(last.getId())));
+        }
+        return result;
+    }
 
+    // ======================================================
+    // FACETED FILTERING
+    // ======================================================
+
+    @Override
+    public FacetResponse filterFoods(List<String> categories,
+                                     List<String> statuses,
+                                     Boolean active,
+                                     Boolean inStock,
+                                     Long afterId,
+                                     int limit) {
+
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CatalogSnapshot snapshot = catalog();
+        FacetIndex.Result result = snapshot.filter(categories, statuses, active, inStock);
+
+        List<Long> ids = result.idsAfter(afterId == null ? 0 : afterId, size + 1);
+        boolean hasMore = ids.size() > size;
+        List<FoodListResponse> items = listRows(snapshot.getAll(hasMore ? ids.subList(0, size) : ids));
+        Long next = hasMore ? items.get(items.size() - 1).getId() : null;
+
+        return new FacetResponse(items, result.total(), next, size, result.counts());
+    }
+
+    // ======================================================
+    // CATALOG SNAPSHOT
+    // ======================================================
+
+    @Override
+    public long getCatalogVersion() {
+        return catalog().version();
+    }
+
+    // Patches carry values read back after commit, not deltas: a reload that already saw the
+    // commit can't get it applied twice. Reads happen under catalogLock like the reload's, so a
+    // later publication never carries older values than an earlier one.
+    @Override
+    public void applyStockChanges(Collection<Long> foodIds) {
+        if (foodIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(foodIds);
+        publish(snapshot -> snapshot.withStock(snapshot.version() + 1, inventorySlots.totals(ids)));
+    }
+
+    @Override
+    public void applySales(Collection<Long> foodIds) {
+        if (foodIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(foodIds);
+        publish(snapshot -> snapshot.withSales(snapshot.version() + 1, inventorySlots.totals(ids), unitsSold(ids)));
+    }
+
+    private Map<Long, Long> unitsSold(Collection<Long> foodIds) {
+        Map<Long, Long> sold = new HashMap<>();
+        foodIds.forEach(foodId -> sold.put(foodId, 0L));
+        for (Object[] row : orderItemRepository.sumQuantityByFoodIn(foodIds)) {
+            sold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return sold;
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        int capped = Math.max(1, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS));
+        return catalog().suggest(prefix, capped);
+    }
+
+    // Reconciles writes that bypass this service (other instances, manual SQL)
+    @Override
+    @Scheduled(
+            initialDelayString = "${app.catalog.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.catalog.refresh-interval-ms:300000}"
+    )
+    public void reloadCatalog() {
+        synchronized (catalogLock) {
+            long version = catalog == null ? 1 : catalog.version() + 1;
+            catalog = loadSnapshot(version);
+        }
+    }
+
+    private CatalogSnapshot catalog() {
+        CatalogSnapshot current = catalog;
+        if (current == null) {
+            synchronized (catalogLock) {
+                current = catalog;
+                if (current == null) {
+                    current = loadSnapshot(1);
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // ======================================================
+    // READ MODELS
+    // ======================================================
+
+    private static List<FoodListResponse> listRows(List<Food> foods) {
+        List<FoodListResponse> rows = new ArrayList<>(foods.size());
+        for (Food food : foods) {
+            rows.add(FoodListResponse.from(food));
+        }
+        return rows;
+    }
+
+    private static List<FoodCardResponse> cards(List<Food> foods) {
+        List<FoodCardResponse> cards = new ArrayList<>(foods.size());
+        for (Food food : foods) {
+            cards.add(FoodCardResponse.from(food));
+        }
+        return cards;
+    }
+
+    private CatalogSnapshot loadSnapshot(long version) {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantityByFood()) {
+            unitsSold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return CatalogSnapshot.of(version, foodRepository.findAllReadOnly(), unitsSold);
+    }
+
+    /**
+     * Publish a patched snapshot once the surrounding transaction (if any) commits,
+     * so readers never see rows that could still roll back.
+     */
+    private void publish(UnaryOperator<CatalogSnapshot> patch) {
+        Runnable apply = () -> {
+            synchronized (catalogLock) {
+                if (catalog != null) {
+                    catalog = patch.apply(catalog);
+                }
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
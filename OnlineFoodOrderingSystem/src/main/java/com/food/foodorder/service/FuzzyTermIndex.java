@@ -0,0 +1,181 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable BK-tree over product-name words, keyed by Levenshtein distance.
+ *
+ * Inserts copy only the path from the root to the new leaf, so snapshots can
+ * share the rest of the tree. Words are never removed: a stale word simply has
+ * no postings left in {@link ProductSearchIndex}, and the periodic full catalog
+ * reload drops it.
+ */
+final class FuzzyTermIndex {
+
+    // Upper bound on distance computations per lookup, keeps typos bounded-time
+    private static final int MAX_VISITED_NODES = 4000;
+
+    private static final FuzzyTermIndex EMPTY = new FuzzyTermIndex(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private FuzzyTermIndex(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static FuzzyTermIndex build(Collection<String> words) {
+        return EMPTY.withWords(words);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Typo budget for a query word: none for very short words, two edits for long ones.
+     */
+    static int maxDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 4 ? 1 : 2;
+    }
+
+    // ======================================================
+    // LOOKUP
+    // ======================================================
+
+    /**
+     * Indexed words within {@code maxDistance} edits of {@code word}, mapped to their distance.
+     */
+    Map<String, Integer> within(String word, int maxDistance) {
+
+        Map<String, Integer> matches = new HashMap<>();
+        if (root == null) {
+            return matches;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        int visited = 0;
+
+        while (!pending.isEmpty() && visited++ < MAX_VISITED_NODES) {
+            Node node = pending.pop();
+            int d = distance(word, node.word);
+            if (d <= maxDistance) {
+                matches.put(node.word, d);
+            }
+            // Triangle inequality: only children in [d - k, d + k] can match
+            for (int edge = Math.max(1, d - maxDistance); edge <= d + maxDistance; edge++) {
+                Node child = node.children.get(edge);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // ======================================================
+    // PATCH
+    // ======================================================
+
+    FuzzyTermIndex withWords(Collection<String> words) {
+        Node newRoot = root;
+        int newSize = size;
+        for (String word : words) {
+            if (newRoot == null) {
+                newRoot = new Node(word, Map.of());
+                newSize++;
+                continue;
+            }
+            Node inserted = insert(newRoot, word);
+            if (inserted != newRoot) {
+                newRoot = inserted;
+                newSize++;
+            }
+        }
+        return newSize == size ? this : new FuzzyTermIndex(newRoot, newSize);
+    }
+
+    /**
+     * Path-copying insert; returns {@code node} itself when the word is already present.
+     */
+    private static Node insert(Node node, String word) {
+
+        List<Node> path = new ArrayList<>();
+        List<Integer> edges = new ArrayList<>();
+        Node current = node;
+
+        while (true) {
+            int d = distance(word, current.word);
+            if (d == 0) {
+                return node;
+            }
+            path.add(current);
+            edges.add(d);
+            Node child = current.children.get(d);
+            if (child == null) {
+                break;
+            }
+            current = child;
+        }
+
+        Node rebuilt = new Node(word, Map.of());
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node parent = path.get(i);
+            Map<Integer, Node> children = new HashMap<>(parent.children);
+            children.put(edges.get(i), rebuilt);
+            rebuilt = new Node(parent.word, children);
+        }
+        return rebuilt;
+    }
+
+    // ======================================================
+    // DISTANCE
+    // ======================================================
+
+    /**
+     * Plain Levenshtein distance (a true metric, which the BK-tree pruning relies on).
+     */
+    static int distance(String a, String b) {
+
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[b.length()];
+    }
+
+    private static final class Node {
+
+        final String word;
+        final Map<Integer, Node> children;
+
+        Node(String word, Map<Integer, Node> children) {
+            this.word = word;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.food.foodorder.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.food.foodorder.dto.FoodCardResponse;
+import com.food.foodorder.dto.HomeFeedResponse;
+import com.food.foodorder.dto.HomeFeedResponse.Banner;
+import com.food.foodorder.dto.HomeFeedResponse.Section;
+import com.food.foodorder.entity.Category;
+import com.food.foodorder.repository.CategoryRepository;
+
+/**
+ * Composes the whole home page (categories, banners, best sellers per active
+ * category) into one response. The feed is rebuilt on a timer and served
+ * from memory, so a home-page visit costs one small request and no queries.
+ */
+@Service
+public class HomeFeedService {
+
+    // Same banners the storefront used to hardcode, until they are managed from the admin panel
+    private static final List<Banner> BANNERS = List.of(
+            new Banner(1L, "/mango.jpg", "Fresh Everyday", "Quality assured fruits & vegetables"),
+            new Banner(2L, "/milk.jpg", "Best Deals", "Amazing discounts on grocery items"),
+            new Banner(3L, "/bread.jpg", "Organic Products", "Farm fresh quality guaranteed")
+    );
+
+    private final CategoryRepository categoryRepository;
+    private final FoodService foodService;
+
+    @Value("${app.home.products-per-category:8}")
+    private int productsPerCategory;
+
+    // Null until the first request or scheduled refresh
+    private volatile HomeFeedResponse feed;
+
+    public HomeFeedService(CategoryRepository categoryRepository, FoodService foodService) {
+        this.categoryRepository = categoryRepository;
+        this.foodService = foodService;
+    }
+
+    public HomeFeedResponse getHomeFeed() {
+        HomeFeedResponse current = feed;
+        if (current == null) {
+            synchronized (this) {
+                current = feed;
+                if (current == null) {
+                    current = build();
+                    feed = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.home.refresh-interval-ms:60000}",
+            fixedDelayString = "${app.home.refresh-interval-ms:60000}"
+    )
+    public void refresh() {
+        feed = build();
+    }
+
+    private HomeFeedResponse build() {
+
+        List<Category> categories = new ArrayList<>();
+        List<Section> sections = new ArrayList<>();
+
+        for (Category category : categoryRepository.findAll()) {
+            if (!Boolean.TRUE.equals(category.getActive())) {
+                continue;
+            }
+            categories.add(category);
+
+            List<FoodCardResponse> bestSellers = foodService.getBestSellers(category.getName(), productsPerCategory);
+            if (!bestSellers.isEmpty()) {
+                sections.add(new Section(category.getId(), category.getName(), bestSellers));
+            }
+        }
+
+        return new HomeFeedResponse(
+                List.copyOf(categories),
+                BANNERS,
+                List.copyOf(sections),
+                foodService.getCatalogVersion(),
+                LocalDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,194 @@
+package com.food.foodorder.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.exception.ConflictException;
+
+/**
+ * Replays the first response to requests retried with the same
+ * {@code Idempotency-Key} header (order placement, payment completion).
+ *
+ * Keys are scoped to the endpoint and the caller. The first request runs;
+ * duplicates that arrive while it is running wait for it, and later ones get
+ * its JSON straight from memory without touching the database. Failures are
+ * not kept, so a retry after an error runs again. The store is bounded by
+ * entry count (oldest dropped first) and by TTL.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    // Set on replayed responses
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // How long a duplicate waits for the first request to finish
+    private static final long IN_FLIGHT_WAIT_SECONDS = 30;
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+
+    // scope|owner|key → entry, oldest first; guarded by itself
+    private final Map<String, Entry> entries;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${app.idempotency.max-entries:5000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Run {@code action} once per (scope, owner, key). A null or blank key just runs it,
+     * and so does a null owner: anonymous callers can't be told apart, so they would
+     * otherwise replay each other's results.
+     *
+     * @param fingerprint what the request asked for; reusing a key for a different request is rejected.
+     *                    Null when the request no longer carries anything to compare (e.g. the cart
+     *                    the first attempt used up): the stored response is replayed as is
+     */
+    public ResponseEntity<Object> execute(String scope, String owner, String key,
+                                          String fingerprint, Supplier<?> action) {
+        return execute(scope, owner, key, fingerprint, HttpStatus.OK, action);
+    }
+
+    /**
+     * Same, answering with {@code status} (e.g. 202 for a queued order); replays keep it.
+     */
+    public ResponseEntity<Object> execute(String scope, String owner, String key,
+                                          String fingerprint, HttpStatus status, Supplier<?> action) {
+        return run(scope, owner, key, fingerprint, status, ttlMillis, action);
+    }
+
+    /**
+     * Same, replaying for at most {@code ttlSeconds} (capped at the configured TTL), for
+     * responses that point at something kept for less time (e.g. an order ticket).
+     */
+    public ResponseEntity<Object> execute(String scope, String owner, String key,
+                                          String fingerprint, HttpStatus status, long ttlSeconds,
+                                          Supplier<?> action) {
+        return run(scope, owner, key, fingerprint, status,
+                Math.min(ttlMillis, TimeUnit.SECONDS.toMillis(ttlSeconds)), action);
+    }
+
+    private ResponseEntity<Object> run(String scope, String owner, String key,
+                                       String fingerprint, HttpStatus status, long entryTtlMillis,
+                                       Supplier<?> action) {
+
+        if (owner == null || key == null || key.isBlank()) {
+            return ResponseEntity.status(status).body(action.get());
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = scope + "|" + owner + "|" + key;
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(fingerprint, status, now, entryTtlMillis);
+        Entry existing;
+
+        synchronized (entries) {
+            existing = entries.get(id);
+            if (existing != null && now - existing.createdAt > existing.ttlMillis) {
+                entries.remove(id);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(id, mine);
+            }
+        }
+
+        if (existing != null) {
+            return replay(existing, fingerprint);
+        }
+
+        Object body;
+        try {
+            body = action.get();
+        } catch (RuntimeException e) {
+            forget(id, mine);
+            mine.response.completeExceptionally(e);
+            throw e;
+        }
+
+        // Kept as JSON: later replays never touch the (possibly lazy) entity graph
+        try {
+            mine.response.complete(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            forget(id, mine);
+            mine.response.completeExceptionally(new IllegalStateException("Response could not be stored", e));
+        }
+        return ResponseEntity.status(status).body(body);
+    }
+
+    private ResponseEntity<Object> replay(Entry entry, String fingerprint) {
+
+        if (fingerprint != null && !Objects.equals(entry.fingerprint, fingerprint)) {
+            throw new BadRequestException(HEADER + " was already used for a different request");
+        }
+
+        try {
+            byte[] json = entry.response.get(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS);
+            return ResponseEntity.status(entry.status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(REPLAYED_HEADER, "true")
+                    .body(json);
+        } catch (ExecutionException e) {
+            // The first attempt failed while we waited: same outcome for the duplicate
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this " + HEADER + " is still in progress");
+        }
+    }
+
+    private void forget(String id, Entry entry) {
+        synchronized (entries) {
+            entries.remove(id, entry);
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final HttpStatus status;
+        final long createdAt;
+        final long ttlMillis;
+        final CompletableFuture<byte[]> response = new CompletableFuture<>();
+
+        Entry(String fingerprint, HttpStatus status, long createdAt, long ttlMillis) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.ttlMillis = ttlMillis;
+        }
+    }
+}
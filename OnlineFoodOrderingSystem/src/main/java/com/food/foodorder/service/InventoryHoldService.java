@@ -0,0 +1,322 @@
+package com.food.foodorder.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.food.foodorder.dto.CheckoutHoldResponse;
+import com.food.foodorder.entity.CartItem;
+import com.food.foodorder.entity.StockMovement;
+import com.food.foodorder.entity.User;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.exception.ResourceNotFoundException;
+import com.food.foodorder.repository.CartRepository;
+import com.food.foodorder.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Time-bounded stock holds taken when a customer starts checkout.
+ *
+ * Starting checkout reserves the cart (through InventoryService) and records
+ * one {@code inventory_holds} row per product; a user has at most one hold,
+ * and starting again replaces it. Live holds are also kept in memory by user
+ * and scheduled on a timer wheel, so expiry touches only the holds that are
+ * due. Placing the order turns the hold into the sale: held units are kept,
+ * missing ones reserved, surplus ones returned.
+ *
+ * The table is the authority: expiry and checkout both delete the hold's
+ * rows under lock, and only the one that deletes them acts on them.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class InventoryHoldService {
+
+    private static final long TICK_MILLIS = 1000;
+
+    // One turn of the wheel = 512 s; longer TTLs just wait extra rounds
+    private static final int WHEEL_SIZE = 512;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryService inventoryService;
+    private final FoodService foodService;
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final long ttlSeconds;
+
+    // userId → current hold
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+
+    private final TimerWheel<Hold> expiry = new TimerWheel<>("hold-expiry", TICK_MILLIS, WHEEL_SIZE, this::expire);
+
+    public InventoryHoldService(NamedParameterJdbcTemplate jdbc,
+                                TransactionTemplate transactionTemplate,
+                                InventoryService inventoryService,
+                                FoodService foodService,
+                                UserRepository userRepository,
+                                CartRepository cartRepository,
+                                @Value("${app.inventory.hold-ttl-seconds:600}") long ttlSeconds) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.inventoryService = inventoryService;
+        this.foodService = foodService;
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @PostConstruct
+    public void recover() {
+
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS inventory_holds ("
+                + "user_id BIGINT NOT NULL, "
+                + "food_id BIGINT NOT NULL, "
+                + "hold_id CHAR(36) NOT NULL, "
+                + "quantity BIGINT NOT NULL, "
+                + "expires_at TIMESTAMP NOT NULL, "
+                + "PRIMARY KEY (user_id, food_id))");
+
+        // Holds left by the previous run: overdue ones expire on the first tick
+        Map<Long, Hold> loaded = new HashMap<>();
+        jdbc.query("SELECT user_id, food_id, hold_id, quantity, expires_at FROM inventory_holds",
+                Map.of(),
+                rs -> {
+                    long userId = rs.getLong("user_id");
+                    Hold hold = loaded.get(userId);
+                    if (hold == null) {
+                        hold = new Hold(userId, rs.getString("hold_id"),
+                                rs.getTimestamp("expires_at").toInstant(), new HashMap<>());
+                        loaded.put(userId, hold);
+                    }
+                    hold.items.put(rs.getLong("food_id"), rs.getLong("quantity"));
+                });
+        loaded.values().forEach(this::track);
+
+        expiry.start();
+
+        if (!loaded.isEmpty()) {
+            System.out.println("✅ Restored " + loaded.size() + " checkout holds");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiry.stop();
+    }
+
+    // ======================================================
+    // CHECKOUT
+    // ======================================================
+
+    /**
+     * Hold the user's cart for the configured TTL, replacing any earlier hold.
+     * Throws "Insufficient stock" (and holds nothing new) if the cart cannot be covered.
+     */
+    public CheckoutHoldResponse startCheckout(String email) {
+
+        User user = findUser(email);
+
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (CartItem item : cartRepository.findByUserId(user.getId())) {
+            quantities.merge(item.getFood().getId(), item.getQuantity(), Long::sum);
+        }
+        if (quantities.isEmpty()) {
+            throw new BadRequestException("Cart is empty");
+        }
+
+        Hold hold = new Hold(user.getId(), UUID.randomUUID().toString(),
+                Instant.now().plusSeconds(ttlSeconds), quantities);
+
+        DeadlockRetry.execute(transactionTemplate, status -> {
+            releaseRows(lockRows(user.getId(), null), user.getId(), null);
+            inventoryService.reserve(quantities, StockMovement.HOLD);
+            insertRows(hold);
+            foodService.applyStockChanges(quantities.keySet());
+            return null;
+        });
+
+        track(hold);
+        return toResponse(hold);
+    }
+
+    public CheckoutHoldResponse getHold(String email) {
+        Hold hold = holds.get(findUser(email).getId());
+        if (hold == null) {
+            throw new ResourceNotFoundException("No active checkout hold");
+        }
+        return toResponse(hold);
+    }
+
+    /**
+     * Give the held stock back (checkout abandoned).
+     */
+    public void cancel(String email) {
+        Long userId = findUser(email).getId();
+        transactionTemplate.executeWithoutResult(status ->
+                releaseRows(lockRows(userId, null), userId, null));
+        holds.remove(userId);
+    }
+
+    /**
+     * Settle stock for an order in the caller's transaction: units the user holds
+     * are kept, the rest of {@code quantities} is reserved now and any surplus
+     * hold is returned. Without a hold this is a plain reserve.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void settle(Long userId, Map<Long, Long> quantities) {
+
+        Map<Long, Long> held = lockRows(userId, null);
+        if (!held.isEmpty()) {
+            jdbc.update("DELETE FROM inventory_holds WHERE user_id = :userId", Map.of("userId", userId));
+        }
+
+        Map<Long, Long> toReserve = new HashMap<>();
+        quantities.forEach((foodId, quantity) -> {
+            long missing = quantity - held.getOrDefault(foodId, 0L);
+            if (missing > 0) {
+                toReserve.put(foodId, missing);
+            }
+        });
+        Map<Long, Long> surplus = new HashMap<>();
+        held.forEach((foodId, quantity) -> {
+            long extra = quantity - quantities.getOrDefault(foodId, 0L);
+            if (extra > 0) {
+                surplus.put(foodId, extra);
+            }
+        });
+
+        inventoryService.release(surplus, StockMovement.RELEASE);
+        inventoryService.reserve(toReserve, StockMovement.ORDER);
+
+        if (!held.isEmpty()) {
+            foodService.applyStockChanges(held.keySet());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    holds.remove(userId);
+                }
+            });
+        }
+    }
+
+    // ======================================================
+    // EXPIRY
+    // ======================================================
+
+    private void track(Hold hold) {
+        holds.put(hold.userId, hold);
+        expiry.schedule(hold, hold.expiresAt.toEpochMilli());
+    }
+
+    private void expire(Hold hold) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    releaseRows(lockRows(hold.userId, hold.holdId), hold.userId, hold.holdId));
+        } catch (RuntimeException e) {
+            // Nothing else would ever release it: try again on the next tick (unless it was settled meanwhile)
+            if (holds.get(hold.userId) == hold) {
+                System.out.println("⚠️ Hold expiry failed for user " + hold.userId + ", retrying: " + e.getMessage());
+                expiry.schedule(hold, System.currentTimeMillis());
+            }
+            return;
+        }
+        holds.remove(hold.userId, hold);
+    }
+
+    // ======================================================
+    // ROWS
+    // ======================================================
+
+    // foodId → quantity of the user's hold (only holdId's rows when given), locked
+    private Map<Long, Long> lockRows(Long userId, String holdId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("holdId", holdId);
+        Map<Long, Long> rows = new HashMap<>();
+        jdbc.query("SELECT food_id, quantity FROM inventory_holds WHERE user_id = :userId "
+                        + (holdId != null ? "AND hold_id = :holdId " : "") + "FOR UPDATE",
+                params,
+                rs -> {
+                    rows.put(rs.getLong(1), rs.getLong(2));
+                });
+        return rows;
+    }
+
+    private void releaseRows(Map<Long, Long> rows, Long userId, String holdId) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbc.update("DELETE FROM inventory_holds WHERE user_id = :userId"
+                        + (holdId != null ? " AND hold_id = :holdId" : ""),
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("holdId", holdId));
+        inventoryService.release(rows, StockMovement.RELEASE);
+        foodService.applyStockChanges(rows.keySet());
+    }
+
+    private void insertRows(Hold hold) {
+        Timestamp expiresAt = Timestamp.from(hold.expiresAt);
+        List<SqlParameterSource> rows = new ArrayList<>(hold.items.size());
+        hold.items.forEach((foodId, quantity) -> rows.add(new MapSqlParameterSource()
+                .addValue("userId", hold.userId)
+                .addValue("foodId", foodId)
+                .addValue("holdId", hold.holdId)
+                .addValue("quantity", quantity)
+                .addValue("expiresAt", expiresAt)));
+        jdbc.batchUpdate("INSERT INTO inventory_holds (user_id, food_id, hold_id, quantity, expires_at) "
+                        + "VALUES (:userId, :foodId, :holdId, :quantity, :expiresAt)",
+                rows.toArray(new SqlParameterSource[0]));
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+
+    private User findUser(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private static CheckoutHoldResponse toResponse(Hold hold) {
+        return new CheckoutHoldResponse(hold.holdId,
+                LocalDateTime.ofInstant(hold.expiresAt, ZoneId.systemDefault()),
+                Map.copyOf(hold.items));
+    }
+
+    private static final class Hold {
+        final Long userId;
+        final String holdId;
+        final Instant expiresAt;
+        final Map<Long, Long> items;    // foodId → units
+
+        Hold(Long userId, String holdId, Instant expiresAt, Map<Long, Long> items) {
+            this.userId = userId;
+            this.holdId = holdId;
+            this.expiresAt = expiresAt;
+            this.items = items;
+        }
+    }
+}
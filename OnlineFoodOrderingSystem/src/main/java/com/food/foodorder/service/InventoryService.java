@@ -0,0 +1,19 @@
+package com.food.foodorder.service;
+
+import java.util.Map;
+
+import com.food.foodorder.entity.StockMovement;
+
+public interface InventoryService {
+
+    // ✅ Take stock for a whole order or checkout hold (foodId → quantity) or throw
+    //    "Insufficient stock". Joins the caller's transaction; a rollback gives the stock back.
+    void reserve(Map<Long, Long> quantities, StockMovement reason);
+
+    // ✅ Give back stock taken by reserve (released holds, cancelled orders).
+    //    Joins the caller's transaction.
+    void release(Map<Long, Long> quantities, StockMovement reason);
+
+    // ✅ Overwrite total stock (admin edit, import, new product); the ledger gets the difference
+    void setStock(Map<Long, Long> stocks, StockMovement reason);
+}
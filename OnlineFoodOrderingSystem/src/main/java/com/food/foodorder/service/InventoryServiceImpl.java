@@ -0,0 +1,109 @@
+package com.food.foodorder.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.food.foodorder.entity.Food;
+import com.food.foodorder.entity.StockMovement;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.repository.FoodRepository;
+
+/**
+ * Single entry point for taking stock out of the catalog.
+ *
+ * Each line is one conditional UPDATE (stock = stock - q WHERE stock >= q)
+ * on one of the product's stock slots (see InventorySlots), so the check and
+ * the decrement are a single atomic step in the database and two checkouts
+ * can never both take the last unit. No row is read or locked up front.
+ *
+ * Products in flash-sale mode are taken from in-memory counters instead
+ * (see FlashSaleInventory) and written back to the database in batches.
+ *
+ * Every movement is also appended to the stock ledger (see StockLedger) in
+ * the same transaction.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    @Autowired
+    private InventorySlots inventorySlots;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private FlashSaleInventory flashSaleInventory;
+
+    @Override
+    @Transactional
+    public void reserve(Map<Long, Long> quantities, StockMovement reason) {
+
+        for (long quantity : quantities.values()) {
+            if (quantity <= 0) {
+                throw new BadRequestException("Quantity must be at least 1");
+            }
+        }
+
+        FlashSaleInventory.Reservation flashSale = flashSaleInventory.tryReserve(quantities);
+        if (flashSale.shortOf != null) {
+            throw new BadRequestException("Insufficient stock for " + productName(flashSale.shortOf));
+        }
+
+        // A sale being turned off: its sold units must leave the slots before we read them
+        flashSaleInventory.flushProducts(flashSaleInventory.journaled(flashSale.rest.keySet()));
+
+        // Ascending id order: concurrent orders lock shared rows in the same order (no deadlocks)
+        for (Map.Entry<Long, Long> line : new TreeMap<>(flashSale.rest).entrySet()) {
+            if (!inventorySlots.take(line.getKey(), line.getValue())) {
+                throw new BadRequestException("Insufficient stock for " + productName(line.getKey()));
+            }
+        }
+
+        stockLedger.record(negated(quantities), reason);
+    }
+
+    @Override
+    @Transactional
+    public void release(Map<Long, Long> quantities, StockMovement reason) {
+        for (Map.Entry<Long, Long> line : new TreeMap<>(quantities).entrySet()) {
+            if (line.getValue() <= 0) {
+                continue;
+            }
+            inventorySlots.restore(line.getKey(), line.getValue());
+            // Flash-sale counter = slots minus journal, so it gets the units back too
+            flashSaleInventory.returnUnits(line.getKey(), line.getValue());
+        }
+        stockLedger.record(quantities, reason);
+    }
+
+    @Override
+    @Transactional
+    public void setStock(Map<Long, Long> stocks, StockMovement reason) {
+
+        // Flash-sale products: write back what was sold first, then move the counter by the same change
+        // as the slots, so counter = slots - journal still holds with checkouts in flight
+        flashSaleInventory.flushProducts(flashSaleInventory.journaled(stocks.keySet()));
+
+        Map<Long, Long> changes = inventorySlots.setStocks(stocks);
+        flashSaleInventory.adjust(changes);
+        stockLedger.record(changes, reason);
+    }
+
+    private String productName(Long foodId) {
+        return foodRepository.findById(foodId).map(Food::getName).orElse("product " + foodId);
+    }
+
+    private static Map<Long, Long> negated(Map<Long, Long> quantities) {
+        Map<Long, Long> deltas = new HashMap<>();
+        quantities.forEach((foodId, quantity) -> deltas.put(foodId, -quantity));
+        return deltas;
+    }
+}
@@ -0,0 +1,318 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.exception.ResourceNotFoundException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Product stock split across slot rows in {@code inventory_slots}
+ * (food_id, slot, stock); a product's stock is the sum of its slots
+ * (see {@code Food.stock}).
+ *
+ * A checkout takes its units from one slot picked at random, with a single
+ * conditional UPDATE, so concurrent checkouts of a hot product mostly lock
+ * different rows. If that slot cannot cover the line, all slots are locked
+ * in ascending order and drained together (the random slot is the only one
+ * ever locked out of order; the rare deadlock that can still leave is retried,
+ * see DeadlockRetry). Setting the stock spreads it evenly over the product's
+ * slots.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class InventorySlots {
+
+    static final int MAX_SLOTS = 64;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO inventory_slots (food_id, slot, stock) VALUES (:foodId, :slot, :stock) "
+                    + "ON DUPLICATE KEY UPDATE stock = VALUES(stock)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    // Slot count for new products
+    private final int defaultSlots;
+
+    // foodId → slot count, for products with more than one slot
+    private final Map<Long, Integer> slotCounts = new ConcurrentHashMap<>();
+
+    public InventorySlots(NamedParameterJdbcTemplate jdbc,
+                          @Value("${app.inventory.default-slots:1}") int defaultSlots) {
+        this.jdbc = jdbc;
+        this.defaultSlots = Math.max(1, Math.min(defaultSlots, MAX_SLOTS));
+    }
+
+    @PostConstruct
+    public void migrate() {
+
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS inventory_slots ("
+                + "food_id BIGINT NOT NULL, "
+                + "slot INT NOT NULL, "
+                + "stock BIGINT NOT NULL, "
+                + "PRIMARY KEY (food_id, slot))");
+
+        // Products still on the old foods.stock column get its value as slot 0, in one
+        // INSERT (a crash leaves nothing half-copied, and a rerun skips products that
+        // already have slots). The column stays; it only gets a default so inserts that
+        // no longer set it keep working. Dropping it is left to an explicit migration.
+        // legacyColumn: one row (the column default, possibly null) while the column exists
+        List<String> legacyColumn = jdbc.query(
+                "SELECT column_default FROM information_schema.columns WHERE table_schema = DATABASE() "
+                        + "AND table_name = 'foods' AND column_name = 'stock'",
+                Map.of(),
+                (rs, n) -> rs.getString(1));
+        if (!legacyColumn.isEmpty()) {
+            int seeded = jdbc.getJdbcTemplate().update(
+                    "INSERT INTO inventory_slots (food_id, slot, stock) SELECT f.id, 0, f.stock FROM foods f "
+                            + "WHERE NOT EXISTS (SELECT 1 FROM inventory_slots s WHERE s.food_id = f.id)");
+            if (seeded > 0) {
+                System.out.println("✅ Copied stock of " + seeded + " products into inventory_slots");
+            }
+            if (legacyColumn.get(0) == null) {
+                jdbc.getJdbcTemplate().execute("ALTER TABLE foods ALTER COLUMN stock SET DEFAULT 0");
+            }
+        }
+
+        jdbc.query("SELECT food_id, COUNT(*) FROM inventory_slots GROUP BY food_id HAVING COUNT(*) > 1",
+                Map.of(),
+                rs -> {
+                    slotCounts.put(rs.getLong(1), rs.getInt(2));
+                });
+    }
+
+    // ======================================================
+    // CHECKOUT
+    // ======================================================
+
+    /**
+     * Take {@code quantity} units in the caller's transaction; false when the product is short.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean take(Long foodId, long quantity) {
+
+        int slots = slotCounts.getOrDefault(foodId, 1);
+        int slot = slots == 1 ? 0 : ThreadLocalRandom.current().nextInt(slots);
+
+        int updated = jdbc.update(
+                "UPDATE inventory_slots SET stock = stock - :quantity "
+                        + "WHERE food_id = :foodId AND slot = :slot AND stock >= :quantity",
+                new MapSqlParameterSource()
+                        .addValue("foodId", foodId)
+                        .addValue("slot", slot)
+                        .addValue("quantity", quantity));
+        if (updated == 1) {
+            return true;
+        }
+
+        // That slot is short (stock spread thin, or a stale slot count): lock them all, lowest slot first
+        return drain(foodId, quantity, false);
+    }
+
+    /**
+     * Take units that are already sold (flash-sale write-back). If the slots hold
+     * less, slot 0 goes negative so the total stays exact.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long foodId, long quantity) {
+        drain(foodId, quantity, true);
+    }
+
+    /**
+     * Put units back (released holds) on a random slot, or slot 0 if that slot is gone.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restore(Long foodId, long quantity) {
+        int slots = slotCounts.getOrDefault(foodId, 1);
+        int slot = slots == 1 ? 0 : ThreadLocalRandom.current().nextInt(slots);
+        int updated = jdbc.update(
+                "UPDATE inventory_slots SET stock = stock + :quantity WHERE food_id = :foodId AND slot = :slot",
+                new MapSqlParameterSource()
+                        .addValue("foodId", foodId)
+                        .addValue("slot", slot)
+                        .addValue("quantity", quantity));
+        if (updated == 0) {
+            jdbc.update("INSERT INTO inventory_slots (food_id, slot, stock) VALUES (:foodId, 0, :quantity) "
+                            + "ON DUPLICATE KEY UPDATE stock = stock + VALUES(stock)",
+                    new MapSqlParameterSource()
+                            .addValue("foodId", foodId)
+                            .addValue("quantity", quantity));
+        }
+    }
+
+    private boolean drain(Long foodId, long quantity, boolean force) {
+
+        Map<Integer, Long> slots = lockSlots(foodId);
+        long total = 0;
+        for (long stock : slots.values()) {
+            total += stock;
+        }
+        if (total < quantity && !force) {
+            return false;
+        }
+
+        Map<Integer, Long> after = new TreeMap<>(slots);
+        long left = quantity;
+        for (Map.Entry<Integer, Long> slot : after.entrySet()) {
+            long taken = Math.min(left, Math.max(0, slot.getValue()));
+            slot.setValue(slot.getValue() - taken);
+            left -= taken;
+        }
+        if (left > 0) {
+            after.merge(0, -left, Long::sum);
+        }
+
+        List<SqlParameterSource> updates = new ArrayList<>();
+        after.forEach((slot, stock) -> {
+            if (!stock.equals(slots.get(slot))) {
+                updates.add(slotRow(foodId, slot, stock));
+            }
+        });
+        jdbc.batchUpdate(UPSERT_SQL, updates.toArray(new SqlParameterSource[0]));
+        return true;
+    }
+
+    /**
+     * Current total stock per product (products without slots count as 0).
+     */
+    public Map<Long, Long> totals(Collection<Long> foodIds) {
+        Map<Long, Long> totals = new HashMap<>();
+        if (foodIds.isEmpty()) {
+            return totals;
+        }
+        foodIds.forEach(foodId -> totals.put(foodId, 0L));
+        jdbc.query("SELECT food_id, SUM(stock) FROM inventory_slots WHERE food_id IN (:ids) GROUP BY food_id",
+                Map.of("ids", foodIds),
+                rs -> {
+                    totals.put(rs.getLong(1), rs.getLong(2));
+                });
+        return totals;
+    }
+
+    // ======================================================
+    // ADMIN / CATALOG WRITES
+    // ======================================================
+
+    /**
+     * Set total stock per product (foodId → stock), each spread evenly over its slots.
+     * Returns the change per product (new total - old total).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Long> setStocks(Map<Long, Long> stocks) {
+
+        if (stocks.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> existing = new HashMap<>();
+        Map<Long, Long> changes = new HashMap<>(stocks);
+        jdbc.query("SELECT food_id, stock FROM inventory_slots WHERE food_id IN (:ids) FOR UPDATE",
+                Map.of("ids", stocks.keySet()),
+                rs -> {
+                    existing.merge(rs.getLong(1), 1, Integer::sum);
+                    changes.merge(rs.getLong(1), -rs.getLong(2), Long::sum);
+                });
+
+        List<SqlParameterSource> rows = new ArrayList<>();
+        stocks.forEach((foodId, stock) -> {
+            int slots = existing.getOrDefault(foodId, defaultSlots);
+            rows.addAll(spread(foodId, stock, slots));
+            if (slots > 1) {
+                slotCounts.put(foodId, slots);
+            }
+        });
+        jdbc.batchUpdate(UPSERT_SQL, rows.toArray(new SqlParameterSource[0]));
+        return changes;
+    }
+
+    /**
+     * Re-split a product's stock over {@code slots} rows (more slots for hotter products).
+     * Returns the total stock, which is unchanged.
+     */
+    @Transactional
+    public long reshard(Long foodId, int slots) {
+
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new BadRequestException("Slot count must be between 1 and " + MAX_SLOTS);
+        }
+        Integer found = jdbc.queryForObject("SELECT COUNT(*) FROM foods WHERE id = :id",
+                Map.of("id", foodId), Integer.class);
+        if (found == null || found == 0) {
+            throw new ResourceNotFoundException("Food not found");
+        }
+
+        long total = 0;
+        for (long stock : lockSlots(foodId).values()) {
+            total += stock;
+        }
+
+        jdbc.update("DELETE FROM inventory_slots WHERE food_id = :id", Map.of("id", foodId));
+        jdbc.batchUpdate(UPSERT_SQL, spread(foodId, total, slots).toArray(new SqlParameterSource[0]));
+
+        if (slots > 1) {
+            slotCounts.put(foodId, slots);
+        } else {
+            slotCounts.remove(foodId);
+        }
+        return total;
+    }
+
+    @Transactional
+    public void delete(Collection<Long> foodIds) {
+        if (foodIds.isEmpty()) {
+            return;
+        }
+        jdbc.update("DELETE FROM inventory_slots WHERE food_id IN (:ids)", Map.of("ids", foodIds));
+        slotCounts.keySet().removeAll(foodIds);
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+
+    // slot → stock, ascending, rows locked until the transaction ends
+    private Map<Integer, Long> lockSlots(Long foodId) {
+        Map<Integer, Long> slots = new TreeMap<>();
+        jdbc.query("SELECT slot, stock FROM inventory_slots WHERE food_id = :id ORDER BY slot FOR UPDATE",
+                Map.of("id", foodId),
+                rs -> {
+                    slots.put(rs.getInt(1), rs.getLong(2));
+                });
+        return slots;
+    }
+
+    // Even split; the first (stock mod slots) slots get one extra unit
+    private static List<SqlParameterSource> spread(Long foodId, long stock, int slots) {
+        long base = Math.floorDiv(stock, slots);
+        long extra = Math.floorMod(stock, slots);
+        List<SqlParameterSource> rows = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            rows.add(slotRow(foodId, slot, base + (slot < extra ? 1 : 0)));
+        }
+        return rows;
+    }
+
+    private static SqlParameterSource slotRow(Long foodId, int slot, long stock) {
+        return new MapSqlParameterSource()
+                .addValue("foodId", foodId)
+                .addValue("slot", slot)
+                .addValue("stock", stock);
+    }
+}
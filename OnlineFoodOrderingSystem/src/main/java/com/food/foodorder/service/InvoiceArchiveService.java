@@ -0,0 +1,298 @@
+package com.food.foodorder.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.food.foodorder.dto.InvoiceArchiveResponse;
+import com.food.foodorder.entity.Order;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.exception.ConflictException;
+import com.food.foodorder.exception.ResourceNotFoundException;
+import com.food.foodorder.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Admin job that puts every invoice for a date range into one ZIP.
+ *
+ * Orders are read in id order through a keyset cursor, a page at a time,
+ * and rendered on a dedicated fork-join pool (never the request-facing
+ * invoice pool). Only a window of renders is in flight; the oldest one is
+ * written into the ZIP before the next is submitted, so memory depends on
+ * the page and pool size, not on how many orders the month had.
+ * Invoices already on disk are copied from there; the rest are rendered in
+ * memory and not added to the invoice store.
+ *
+ * One job runs at a time. The ZIP is written under a temp name and appears
+ * once it is complete; progress is kept in memory for the last few jobs, and
+ * a job's ZIP is deleted when the job is dropped.
+ */
+@Service
+public class InvoiceArchiveService {
+
+    private static final String RUNNING = "RUNNING";
+    private static final String DONE = "DONE";
+    private static final String FAILED = "FAILED";
+
+    private static final int PAGE_SIZE = 200;
+
+    // Finished jobs kept for progress / download lookups
+    private static final int MAX_JOBS = 20;
+
+    // Longest range one archive may cover
+    private static final int MAX_DAYS = 366;
+
+    private final OrderRepository orderRepository;
+    private final InvoiceService invoiceService;
+    private final Path dir;
+    private final int parallelism;
+
+    private final ForkJoinPool renderPool;
+
+    // jobId → job, oldest first; guarded by itself
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public InvoiceArchiveService(OrderRepository orderRepository,
+                                 InvoiceService invoiceService,
+                                 @Value("${app.invoices.dir:invoices}") String invoicesDir,
+                                 @Value("${app.invoices.archive.parallelism:4}") int parallelism) {
+        this.orderRepository = orderRepository;
+        this.invoiceService = invoiceService;
+        this.dir = Paths.get(invoicesDir).toAbsolutePath().resolve("archives");
+        this.parallelism = Math.max(1, parallelism);
+        this.renderPool = new ForkJoinPool(this.parallelism);
+    }
+
+    // Jobs live only in memory: ZIPs (and temp files) from an earlier run can't be reached any more
+    @PostConstruct
+    public void clean() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.out.println("⚠️ Could not clean invoice archives: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        renderPool.shutdownNow();
+    }
+
+    // ======================================================
+    // JOBS
+    // ======================================================
+
+    /**
+     * Start archiving invoices of orders placed in [from, to).
+     */
+    public InvoiceArchiveResponse start(LocalDate from, LocalDate to) {
+
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new BadRequestException("'to' must be after 'from'");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new BadRequestException("An archive can cover at most " + MAX_DAYS + " days");
+        }
+
+        Job job;
+        List<Job> evicted = new ArrayList<>();
+        synchronized (jobs) {
+            if (jobs.values().stream().anyMatch(j -> RUNNING.equals(j.status))) {
+                throw new ConflictException("An invoice archive is already being generated");
+            }
+            job = new Job(UUID.randomUUID().toString(), from, to);
+            jobs.put(job.id, job);
+            while (jobs.size() > MAX_JOBS) {
+                evicted.add(jobs.remove(jobs.keySet().iterator().next()));
+            }
+        }
+        evicted.forEach(this::deleteArchive);
+
+        Thread worker = new Thread(() -> run(job), "invoice-archive");
+        worker.setDaemon(true);
+        worker.start();
+        return job.toResponse();
+    }
+
+    public InvoiceArchiveResponse getJob(String jobId) {
+        return find(jobId).toResponse();
+    }
+
+    /**
+     * The finished ZIP of a job.
+     */
+    public Path archiveFile(String jobId) {
+        Job job = find(jobId);
+        if (!DONE.equals(job.status) || job.file == null || !Files.exists(job.file)) {
+            throw new ResourceNotFoundException("Archive is not ready");
+        }
+        return job.file;
+    }
+
+    private Job find(String jobId) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobId);
+            if (job == null) {
+                throw new ResourceNotFoundException("Archive job not found");
+            }
+            return job;
+        }
+    }
+
+    // ======================================================
+    // WORKER
+    // ======================================================
+
+    private void run(Job job) {
+
+        LocalDateTime from = job.from.atStartOfDay();
+        LocalDateTime to = job.to.atStartOfDay();
+        Path file = dir.resolve("invoices_" + job.from + "_" + job.to + "_" + job.id.substring(0, 8) + ".zip");
+
+        try {
+            job.total = orderRepository.countByOrderDateGreaterThanEqualAndOrderDateLessThan(from, to);
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "archive-", ".tmp");
+
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                // PDFs are mostly compressed already: don't spend CPU squeezing them again
+                zip.setLevel(Deflater.BEST_SPEED);
+
+                Deque<Future<InvoiceService.InvoicePdf>> inFlight = new ArrayDeque<>();
+                int window = parallelism * 2;
+                long afterId = 0;
+
+                while (true) {
+                    List<Long> ids = orderRepository.findIdsPlacedBetween(from, to, afterId, PageRequest.of(0, PAGE_SIZE));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    afterId = ids.get(ids.size() - 1);
+
+                    List<Order> page = new ArrayList<>(orderRepository.findWithItemsByIdIn(ids));
+                    page.sort((a, b) -> a.getId().compareTo(b.getId()));
+
+                    for (Order order : page) {
+                        if (inFlight.size() >= window) {
+                            writeNext(inFlight, zip, job);
+                        }
+                        inFlight.add(renderPool.submit(() -> invoiceService.pdfFor(order)));
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    writeNext(inFlight, zip, job);
+                }
+            } catch (Exception e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            job.file = file;
+            job.finish(DONE, null);
+            System.out.println("🗂️ Invoice archive " + file.getFileName() + ": " + job.processed.get()
+                    + " orders (" + job.failed.get() + " failed)");
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            job.finish(FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            System.out.println("❌ Invoice archive " + job.id + " failed: " + job.error);
+        }
+    }
+
+    // Oldest render → ZIP entry
+    private void writeNext(Deque<Future<InvoiceService.InvoicePdf>> inFlight, ZipOutputStream zip, Job job)
+            throws IOException, InterruptedException {
+
+        Future<InvoiceService.InvoicePdf> next = inFlight.poll();
+        try {
+            InvoiceService.InvoicePdf invoice = next.get();
+            zip.putNextEntry(new ZipEntry(invoice.getFileName()));
+            invoice.writeTo(zip);
+            zip.closeEntry();
+        } catch (ExecutionException e) {
+            // One broken order shouldn't sink the month; it is counted and left out
+            job.failed.incrementAndGet();
+            System.out.println("⚠️ Invoice left out of archive: " + e.getCause().getMessage());
+        }
+        job.processed.incrementAndGet();
+    }
+
+    private void deleteArchive(Job job) {
+        if (job.file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            System.out.println("⚠️ Could not delete invoice archive " + job.file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final LocalDate from;
+        final LocalDate to;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+
+        volatile String status = RUNNING;
+        volatile long total;
+        volatile Path file;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, LocalDate from, LocalDate to) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+        }
+
+        void finish(String status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        InvoiceArchiveResponse toResponse() {
+            String state = status;
+            return new InvoiceArchiveResponse(id, state, from, to, total, processed.get(), failed.get(),
+                    DONE.equals(state) ? "/api/admin/invoice-archives/" + id + "/download" : null,
+                    error, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.food.foodorder.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.food.foodorder.entity.Order;
+import com.food.foodorder.entity.OrderItem;
+import com.food.foodorder.exception.ResourceNotFoundException;
+import com.food.foodorder.exception.ServiceUnavailableException;
+import com.food.foodorder.repository.OrderRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// iText imports
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * Invoice PDFs, rendered once per order version and kept on disk.
+ *
+ * A PDF's file name is the order id plus the SHA-256 of everything printed
+ * on it (order, status, items, total), so an unchanged order always maps to
+ * the same file and a changed one (e.g. new status) to a new file; nothing
+ * ever has to be invalidated. Once a new version is stored, the order's older
+ * files are deleted, so the cache holds at most one PDF per order. Missing
+ * files are rendered on a small bounded pool, concurrent requests for the
+ * same invoice share one render, and files are written to a temp name and
+ * moved into place so readers never see half a PDF.
+ */
+@Service
+public class InvoiceService {
+
+    // Longest a caller waits for a render
+    private static final long RENDER_WAIT_SECONDS = 30;
+
+    private static final DateTimeFormatter ORDER_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a");
+
+    private final OrderRepository orderRepository;
+    private final Path dir;
+    private final ThreadPoolExecutor renderers;
+
+    // content hash → render in progress
+    private final Map<String, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>();
+
+    public InvoiceService(OrderRepository orderRepository,
+                          @Value("${app.invoices.dir:invoices}") String dir,
+                          @Value("${app.invoices.renderers:2}") int renderers,
+                          @Value("${app.invoices.queue-capacity:100}") int queueCapacity) {
+        this.orderRepository = orderRepository;
+        this.dir = Paths.get(dir).toAbsolutePath();
+
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, renderers);
+        this.renderers = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "invoice-render-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Files from before the order id was part of the name can't be matched to an order: drop them
+    @PostConstruct
+    public void removeUnownedFiles() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().matches("[0-9a-f]{64}\\.pdf")) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            System.out.println("🧾 Removed " + removed + " cached invoices without an order id");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        renderers.shutdownNow();
+    }
+
+    /**
+     * A stored invoice (order loaded with its items).
+     */
+    public StoredInvoice invoiceFor(Long orderId) {
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return invoiceFor(order);
+    }
+
+    /**
+     * A stored invoice for this version of the order; rendered first if needed.
+     * The order's items must be loaded.
+     */
+    public StoredInvoice invoiceFor(Order order) {
+
+        String hash = contentHash(order);
+        Path file = pathOf(order.getId(), hash);
+        if (Files.exists(file)) {
+            return new StoredInvoice(order.getId(), hash, file);
+        }
+
+        CompletableFuture<Path> render = rendering.computeIfAbsent(hash, h -> {
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            try {
+                renderers.execute(() -> {
+                    try {
+                        future.complete(render(order, file));
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    } finally {
+                        rendering.remove(h);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(new ServiceUnavailableException("Too many invoices being generated, please retry shortly"));
+            }
+            return future;
+        });
+
+        try {
+            return new StoredInvoice(order.getId(), hash, render.get(RENDER_WAIT_SECONDS, TimeUnit.SECONDS));
+        } catch (ExecutionException e) {
+            rendering.remove(hash, render);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Invoice could not be generated", e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Invoice is still being generated, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Invoice generation was interrupted");
+        }
+    }
+
+    /**
+     * This version of the order's invoice for a bulk job, rendered on the calling
+     * thread (bulk jobs bring their own pool instead of filling the request-facing
+     * one). A stored PDF is reused; otherwise the PDF is rendered in memory and not
+     * stored, so a bulk job doesn't fill the cache with invoices nobody asked for.
+     */
+    public InvoicePdf pdfFor(Order order) {
+        Path file = pathOf(order.getId(), contentHash(order));
+        if (Files.exists(file)) {
+            return new InvoicePdf(order.getId(), file, null);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        try {
+            writePdf(order, out);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Invoice could not be generated", e);
+        }
+        return new InvoicePdf(order.getId(), null, out.toByteArray());
+    }
+
+    // ======================================================
+    // RENDER
+    // ======================================================
+
+    private Path render(Order order, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file)) {
+                return file;
+            }
+            Path tmp = Files.createTempFile(file.getParent(), "invoice-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                writePdf(order, out);
+            } catch (IOException | DocumentException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("🧾 Invoice rendered for order #" + order.getId() + " → " + file.getFileName());
+            removeOlderVersions(order.getId(), file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invoice could not be stored", e);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Invoice could not be generated", e);
+        }
+    }
+
+    // Open downloads of an old version keep reading it (the file goes once they close it)
+    private static void removeOlderVersions(Long orderId, Path current) throws IOException {
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(current.getParent(), orderId + "-*.pdf")) {
+            for (Path version : versions) {
+                if (!version.equals(current)) {
+                    Files.deleteIfExists(version);
+                }
+            }
+        }
+    }
+
+    private void writePdf(Order order, OutputStream out) throws DocumentException {
+
+        Document document = new Document();
+        PdfWriter.getInstance(document, out);
+        document.open();
+
+        document.add(new Paragraph("GROGOS - TAX INVOICE"));
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph("Invoice No: INV-" + order.getId()));
+        document.add(new Paragraph("Order ID: #" + order.getId()));
+        document.add(new Paragraph("Order Date: " + order.getOrderDate().format(ORDER_DATE)));
+        document.add(new Paragraph("Status: " + order.getStatus()));
+        document.add(new Paragraph(" "));
+
+        document.add(new Paragraph("ITEMS ORDERED:"));
+        document.add(new Paragraph("----------------------------------------------------"));
+
+        for (OrderItem item : order.getOrderItems()) {
+            document.add(new Paragraph(
+                    item.getProductName() + "  x" + item.getQuantity() +
+                            "  = ₹" + String.format("%,.2f", item.getPrice() * item.getQuantity())
+            ));
+        }
+
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph("----------------------------------------------------"));
+        document.add(new Paragraph("TOTAL AMOUNT: ₹" + String.format("%,.2f", order.getTotalAmount())));
+        document.add(new Paragraph(" "));
+        document.add(new Paragraph("Thank you for shopping with GROGOS!"));
+        document.add(new Paragraph("For support: support@grogos.com"));
+
+        document.close();
+    }
+
+    // ======================================================
+    // CONTENT ADDRESS
+    // ======================================================
+
+    // Everything writePdf prints: change one and the file name changes with it
+    private static String contentHash(Order order) {
+        StringBuilder key = new StringBuilder()
+                .append(order.getId()).append('|')
+                .append(order.getOrderDate().format(ORDER_DATE)).append('|')
+                .append(order.getStatus()).append('|')
+                .append(order.getTotalAmount());
+        for (OrderItem item : order.getOrderItems()) {
+            key.append('|').append(item.getProductName())
+                    .append('x').append(item.getQuantity())
+                    .append('@').append(item.getPrice());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Fan-out by the order id's last two digits keeps directories small and an order's versions together
+    private Path pathOf(Long orderId, String hash) {
+        return dir.resolve(String.format("%02d", Math.floorMod(orderId, 100))).resolve(orderId + "-" + hash + ".pdf");
+    }
+
+    public static final class StoredInvoice {
+        private final Long orderId;
+        private final String hash;
+        private final Path file;
+
+        StoredInvoice(Long orderId, String hash, Path file) {
+            this.orderId = orderId;
+            this.hash = hash;
+            this.file = file;
+        }
+
+        public String getFileName() { return "GROGOS_Invoice_" + orderId + ".pdf"; }
+        public String getHash() { return hash; }
+        public Path getFile() { return file; }
+    }
+
+    /**
+     * An invoice PDF held either as the stored file or as rendered bytes.
+     */
+    public static final class InvoicePdf {
+        private final Long orderId;
+        private final Path file;
+        private final byte[] bytes;
+
+        InvoicePdf(Long orderId, Path file, byte[] bytes) {
+            this.orderId = orderId;
+            this.file = file;
+            this.bytes = bytes;
+        }
+
+        public String getFileName() { return "GROGOS_Invoice_" + orderId + ".pdf"; }
+
+        public void writeTo(OutputStream out) throws IOException {
+            if (file != null) {
+                Files.copy(file, out);
+            } else {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.food.foodorder.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.food.foodorder.dto.OrderTicketResponse;
+import com.food.foodorder.dto.PlaceOrderRequest;
+import com.food.foodorder.entity.Order;
+import com.food.foodorder.entity.User;
+import com.food.foodorder.exception.BadRequestException;
+import com.food.foodorder.exception.ResourceNotFoundException;
+import com.food.foodorder.exception.ServiceUnavailableException;
+import com.food.foodorder.repository.CartRepository;
+import com.food.foodorder.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Async order intake: placing an order only validates the request and queues
+ * it, and a small worker pool places the orders off the request threads.
+ *
+ * The queue is bounded; when it is full the caller gets a 503 and retries
+ * instead of piling up more work. Workers take whatever is waiting, up to a
+ * batch at a time, and place each order in its own transaction so one bad
+ * cart never rolls back its neighbours. A user has at most one pending
+ * ticket: submitting again while it waits returns the same ticket.
+ *
+ * Tickets live in memory and are dropped some time after they finish.
+ */
+@Service
+public class OrderIntakeQueue {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String PROCESSING = "PROCESSING";
+    private static final String PLACED = "PLACED";
+    private static final String FAILED = "FAILED";
+
+    private final OrderService orderService;
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long retentionSeconds;
+
+    private final BlockingQueue<Ticket> queue;
+
+    // ticketId → ticket (pending and recently finished)
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    // email → pending ticket
+    private final Map<String, Ticket> pendingByUser = new ConcurrentHashMap<>();
+
+    private ExecutorService pool;
+    private volatile boolean running;
+
+    public OrderIntakeQueue(OrderService orderService,
+                            UserRepository userRepository,
+                            CartRepository cartRepository,
+                            @Value("${app.orders.intake.enabled:false}") boolean enabled,
+                            @Value("${app.orders.intake.queue-capacity:1000}") int capacity,
+                            @Value("${app.orders.intake.workers:4}") int workers,
+                            @Value("${app.orders.intake.batch-size:20}") int batchSize,
+                            @Value("${app.orders.intake.ticket-retention-seconds:900}") long retentionSeconds) {
+        this.orderService = orderService;
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.retentionSeconds = retentionSeconds;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    @PostConstruct
+    public void start() {
+
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        AtomicInteger threads = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "order-intake-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::work);
+        }
+        System.out.println("✅ Order intake queue started with " + workers + " workers");
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        if (pool == null) {
+            return;
+        }
+
+        // Let running orders finish; whatever is still queued is failed so pollers hear about it
+        running = false;
+        pool.shutdown();
+        try {
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Ticket> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Ticket ticket : left) {
+            finish(ticket, null, "Server restarted before the order was placed, please try again");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // How long a finished ticket can still be polled
+    public long getTicketRetentionSeconds() {
+        return retentionSeconds;
+    }
+
+    // ======================================================
+    // SUBMIT
+    // ======================================================
+
+    /**
+     * Validate and queue an order for {@code email}; the returned ticket tracks it.
+     */
+    public OrderTicketResponse submit(String email, PlaceOrderRequest request) {
+
+        if (request.getDeliveryAddress() == null || request.getDeliveryAddress().isBlank()) {
+            throw new BadRequestException("Delivery address is required");
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!cartRepository.existsByUserId(user.getId())) {
+            throw new BadRequestException("Cart is empty");
+        }
+
+        Ticket ticket = pendingByUser.compute(email, (key, pending) -> {
+            if (pending != null) {
+                return pending;
+            }
+            Ticket created = new Ticket(UUID.randomUUID().toString(), email, request);
+            if (!queue.offer(created)) {
+                throw new ServiceUnavailableException("Too many orders right now, please retry in a moment");
+            }
+            tickets.put(created.id, created);
+            return created;
+        });
+        return ticket.toResponse();
+    }
+
+    // ======================================================
+    // RESULTS
+    // ======================================================
+
+    public OrderTicketResponse getTicket(String ticketId, String email) {
+        return find(ticketId, email).toResponse();
+    }
+
+    /**
+     * Completes with the ticket once it is PLACED or FAILED.
+     */
+    public CompletableFuture<OrderTicketResponse> awaitTicket(String ticketId, String email) {
+        Ticket ticket = find(ticketId, email);
+        return ticket.done.thenApply(v -> ticket.toResponse());
+    }
+
+    private Ticket find(String ticketId, String email) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.email.equals(email)) {
+            throw new ResourceNotFoundException("Order ticket not found");
+        }
+        return ticket;
+    }
+
+    /**
+     * Forget tickets that finished more than the retention period ago.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(retentionSeconds);
+        tickets.values().removeIf(t -> t.finishedAt != null && t.finishedAt.isBefore(cutoff));
+    }
+
+    // ======================================================
+    // WORKERS
+    // ======================================================
+
+    private void work() {
+
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            for (Ticket ticket : batch) {
+                place(ticket);
+            }
+            batch.clear();
+        }
+    }
+
+    private void place(Ticket ticket) {
+
+        ticket.status = PROCESSING;
+        try {
+            Order order = orderService.placeOrder(ticket.email, ticket.request);
+            finish(ticket, order.getId(), null);
+        } catch (RuntimeException e) {
+            System.out.println("❌ Queued order for " + ticket.email + " failed: " + e.getMessage());
+            finish(ticket, null, e.getMessage() != null ? e.getMessage() : "Order could not be placed");
+        }
+    }
+
+    private void finish(Ticket ticket, Long orderId, String error) {
+        ticket.orderId = orderId;
+        ticket.error = error;
+        ticket.finishedAt = LocalDateTime.now();
+        ticket.status = orderId != null ? PLACED : FAILED;
+        pendingByUser.remove(ticket.email, ticket);
+        ticket.done.complete(null);
+    }
+
+    private static final class Ticket {
+        final String id;
+        final String email;
+        final PlaceOrderRequest request;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        volatile String status = QUEUED;
+        volatile Long orderId;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Ticket(String id, String email, PlaceOrderRequest request) {
+            this.id = id;
+            this.email = email;
+            this.request = request;
+        }
+
+        OrderTicketResponse toResponse() {
+            return new OrderTicketResponse(id, status, orderId, error, createdAt);
+        }
+    }
+}
@@ -11,6 +11,9 @@ public interface OrderService {
     // USER (JWT based)
     Order placeOrder(String email, PlaceOrderRequest request);
 
+    // What placeOrder would buy right now: sorted foodId:quantity of the cart (null when empty)
+    String cartFingerprint(String email);
+
     // USER → own orders
     List<Order> getOrdersByUserEmail(String email);
 
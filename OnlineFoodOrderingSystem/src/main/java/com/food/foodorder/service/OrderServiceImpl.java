@@ -2,11 +2,15 @@ package com.food.foodorder.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.food.foodorder.dto.PlaceOrderRequest;
 import com.food.foodorder.entity.CartItem;
@@ -18,7 +22,6 @@ import com.food.foodorder.entity.User;
 import com.food.foodorder.exception.BadRequestException;
 import com.food.foodorder.exception.ResourceNotFoundException;
 import com.food.foodorder.repository.CartRepository;
-import com.food.foodorder.repository.FoodRepository;
 import com.food.foodorder.repository.OrderItemRepository;
 import com.food.foodorder.repository.OrderRepository;
 import com.food.foodorder.repository.UserRepository;
@@ -29,9 +32,6 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private CartRepository cartRepository;
 
-    @Autowired
-    private FoodRepository foodRepository;
-
     @Autowired
     private OrderRepository orderRepository;
 
@@ -42,14 +42,27 @@ public class OrderServiceImpl implements OrderService {
     private UserRepository userRepository;
 
     @Autowired
-    private EmailService emailService;
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private FoodService foodService;
+
+    @Autowired
+    private InventoryHoldService inventoryHoldService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     // ======================================================
     // PLACE ORDER
     // ======================================================
     @Override
-    @Transactional
     public Order placeOrder(String email, PlaceOrderRequest request) {
+        // Stock slots can deadlock under contention: the whole order is placed again
+        return DeadlockRetry.execute(transactionTemplate, status -> placeOnce(email, request));
+    }
+
+    private Order placeOnce(String email, PlaceOrderRequest request) {
 
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -68,6 +81,7 @@ order.setDeliveryAddress(request.getDeliveryAddress());
 
 double total = 0.0;
 List<OrderItem> orderItems = new ArrayList<>();
+Map<Long, Long> soldQuantities = new HashMap<>();
 
 for (CartItem c : cartItems) {
 
@@ -79,15 +93,7 @@ for (CartItem c : cartItems) {
     double price = food.getPrice();   // ✅ FIX IS HERE
     long quantity = c.getQuantity();
 
-    if (food.getStock() < quantity) {
-        throw new BadRequestException(
-            "Insufficient stock for " + food.getName()
-        );
-    }
-
-    // Reduce stock
-    food.setStock(food.getStock() - quantity);
-    foodRepository.save(food);
+    soldQuantities.merge(food.getId(), quantity, Long::sum);
 
     OrderItem oi = new OrderItem();
     oi.setFood(food);
@@ -105,6 +111,10 @@ for (CartItem c : cartItems) {
 }
 
 
+// ✅ Reduce stock: the checkout hold covers what it can, the rest is reserved now
+//    (one conditional UPDATE per product, throws and rolls back if any line is short)
+inventoryHoldService.settle(user.getId(), soldQuantities);
+
 order.setTotalAmount(total);
 
 // ✅ THIS IS THE FIX (VERY IMPORTANT)
@@ -113,25 +123,42 @@ for (OrderItem oi : orderItems) {
     oi.setOrder(order);
 }
 
-// ✅ Save ONCE
+// ✅ Save ONCE (items cascade; pooled ids let Hibernate batch their INSERTs)
 Order savedOrder = orderRepository.save(order);
 
-        for (OrderItem item : orderItems) {
-            item.setOrder(savedOrder);
-            orderItemRepository.save(item);
-        }
-
-        savedOrder.setOrderItems(orderItems);
-
         cartRepository.deleteByUserId(user.getId());
 
-        try {
-            emailService.sendOrderPlacedEmail(savedOrder, user.getEmail());
-        } catch (Exception ignored) {}
+        // Catalog snapshot picks up stock + popularity once this transaction commits
+        foodService.applySales(soldQuantities.keySet());
+
+        // ✅ Email goes out after commit (outbox), never on this thread
+        emailOutbox.orderPlaced(savedOrder, user.getEmail());
 
         return savedOrder;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String cartFingerprint(String email) {
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (CartItem c : cartRepository.findByUserId(user.getId())) {
+            if (c.getFood() != null) {
+                quantities.merge(c.getFood().getId(), c.getQuantity(), Long::sum);
+            }
+        }
+        if (quantities.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder fingerprint = new StringBuilder();
+        quantities.forEach((foodId, quantity) -> fingerprint.append(foodId).append(':').append(quantity).append(','));
+        return fingerprint.toString();
+    }
+
     // ======================================================
     // USER ORDERS
     // ======================================================
@@ -215,9 +242,7 @@ Order savedOrder = orderRepository.save(order);
         order.setStatus(status);
         Order updated = orderRepository.save(order);
 
-        try {
-            emailService.sendOrderStatusUpdateEmail(updated, order.getUser().getEmail(), newStatus);
-        } catch (Exception ignored) {}
+        emailOutbox.statusChanged(updated, order.getUser().getEmail(), newStatus);
 
         return updated;
     }
@@ -0,0 +1,295 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.food.foodorder.entity.Food;
+
+/**
+ * Immutable inverted index over product name, category and description.
+ *
+ * Terms live in a sorted dictionary so partially typed query words can be
+ * expanded as prefixes. Each posting list is a sorted id array with a parallel
+ * array holding the weight of the strongest field the term appears in.
+ * Patches copy the dictionary and rewrite only the posting lists of terms
+ * that actually changed.
+ */
+final class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Exact term hits outrank prefix expansions
+    private static final int EXACT_BOOST = 2;
+
+    // Bounds work for one- or two-letter prefixes on a large catalog
+    private static final int MAX_PREFIX_EXPANSION = 128;
+
+    private static final ProductSearchIndex EMPTY = new ProductSearchIndex(new TreeMap<>());
+
+    private final NavigableMap<String, Postings> terms;
+
+    private ProductSearchIndex(NavigableMap<String, Postings> terms) {
+        this.terms = terms;
+    }
+
+    static ProductSearchIndex build(Collection<Food> foods) {
+        return EMPTY.withChanges(List.of(), foods);
+    }
+
+    // ======================================================
+    // QUERY
+    // ======================================================
+
+    /**
+     * All products matching every query word, best match first.
+     */
+    List<Long> search(String query) {
+        return rank(tokenize(query), this::scoreToken);
+    }
+
+    /**
+     * Typo-tolerant search: exact/prefix hits first, in normal rank order, then
+     * products only reachable through name words within a few edits of the query.
+     */
+    List<Long> searchFuzzy(String query, FuzzyTermIndex vocabulary) {
+
+        List<String> tokens = tokenize(query);
+        List<Long> exact = rank(tokens, this::scoreToken);
+
+        List<Long> fuzzy = rank(tokens, token -> {
+            Map<Long, Integer> scores = scoreToken(token);
+            vocabulary.within(token, FuzzyTermIndex.maxDistance(token)).forEach((term, distance) -> {
+                Postings postings = terms.get(term);
+                if (distance == 0 || postings == null) {
+                    return;
+                }
+                for (int i = 0; i < postings.ids.length; i++) {
+                    scores.merge(postings.ids[i], postings.weights[i], Math::max);
+                }
+            });
+            return scores;
+        });
+
+        if (fuzzy.size() == exact.size()) {
+            return exact;
+        }
+
+        Set<Long> seen = new HashSet<>(exact);
+        List<Long> result = new ArrayList<>(exact);
+        for (Long id : fuzzy) {
+            if (seen.add(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * AND across query words, summing each word's score; ties broken by id.
+     */
+    private static List<Long> rank(List<String> tokens, Function<String, Map<Long, Integer>> scorer) {
+
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = scorer.apply(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Integer> merged = new HashMap<>();
+                for (Map.Entry<Long, Integer> e : scores.entrySet()) {
+                    Integer s = tokenScores.get(e.getKey());
+                    if (s != null) {
+                        merged.put(e.getKey(), e.getValue() + s);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Integer> e : ranked) {
+            ids.add(e.getKey());
+        }
+        return ids;
+    }
+
+    /**
+     * Best score per product for one query word (exact term or any term it prefixes).
+     */
+    private Map<Long, Integer> scoreToken(String token) {
+
+        Map<Long, Integer> scores = new HashMap<>();
+        int expanded = 0;
+
+        for (Map.Entry<String, Postings> entry : terms.tailMap(token, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(token) || expanded++ >= MAX_PREFIX_EXPANSION) {
+                break;
+            }
+            int boost = term.length() == token.length() ? EXACT_BOOST : 1;
+            Postings postings = entry.getValue();
+            for (int i = 0; i < postings.ids.length; i++) {
+                scores.merge(postings.ids[i], postings.weights[i] * boost, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // ======================================================
+    // PATCH
+    // ======================================================
+
+    /**
+     * New index with the given products' old versions removed and new versions added.
+     */
+    ProductSearchIndex withChanges(Collection<Food> removed, Collection<Food> added) {
+
+        Map<String, Map<Long, Integer>> additions = new HashMap<>();
+        Map<String, List<Long>> removals = new HashMap<>();
+
+        for (Food food : removed) {
+            for (String term : termWeights(food).keySet()) {
+                removals.computeIfAbsent(term, k -> new ArrayList<>()).add(food.getId());
+            }
+        }
+        for (Food food : added) {
+            termWeights(food).forEach((term, weight) ->
+                    additions.computeIfAbsent(term, k -> new HashMap<>()).put(food.getId(), weight));
+        }
+
+        if (additions.isEmpty() && removals.isEmpty()) {
+            return this;
+        }
+
+        NavigableMap<String, Postings> newTerms = new TreeMap<>(terms);
+
+        Set<String> touched = new HashSet<>(removals.keySet());
+        touched.addAll(additions.keySet());
+
+        for (String term : touched) {
+            if (!newTerms.containsKey(term) && !additions.containsKey(term)) {
+                continue;
+            }
+            TreeMap<Long, Integer> merged = new TreeMap<>();
+            Postings current = terms.get(term);
+            if (current != null) {
+                for (int i = 0; i < current.ids.length; i++) {
+                    merged.put(current.ids[i], current.weights[i]);
+                }
+            }
+            merged.keySet().removeAll(removals.getOrDefault(term, List.of()));
+            merged.putAll(additions.getOrDefault(term, Collections.emptyMap()));
+
+            if (merged.isEmpty()) {
+                newTerms.remove(term);
+            } else {
+                newTerms.put(term, Postings.of(merged));
+            }
+        }
+
+        return new ProductSearchIndex(newTerms);
+    }
+
+    /**
+     * True when the fields this index reads differ between two versions of a product.
+     */
+    static boolean indexedFieldsDiffer(Food a, Food b) {
+        return !Objects.equals(a.getName(), b.getName())
+                || !Objects.equals(a.getCategory(), b.getCategory())
+                || !Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+    // ======================================================
+    // TOKENIZER
+    // ======================================================
+
+    static List<String> tokenize(String text) {
+
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    static List<String> nameTerms(Food food) {
+        return tokenize(food.getName());
+    }
+
+    private static Map<String, Integer> termWeights(Food food) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String t : tokenize(food.getName())) {
+            weights.merge(t, NAME_WEIGHT, Math::max);
+        }
+        for (String t : tokenize(food.getCategory())) {
+            weights.merge(t, CATEGORY_WEIGHT, Math::max);
+        }
+        for (String t : tokenize(food.getDescription())) {
+            weights.merge(t, DESCRIPTION_WEIGHT, Math::max);
+        }
+        return weights;
+    }
+
+    // Sorted ids with parallel weights
+    private static final class Postings {
+
+        final long[] ids;
+        final int[] weights;
+
+        private Postings(long[] ids, int[] weights) {
+            this.ids = ids;
+            this.weights = weights;
+        }
+
+        static Postings of(TreeMap<Long, Integer> sorted) {
+            long[] ids = new long[sorted.size()];
+            int[] weights = new int[sorted.size()];
+            int i = 0;
+            for (Map.Entry<Long, Integer> e : sorted.entrySet()) {
+                ids[i] = e.getKey();
+                weights[i] = e.getValue();
+                i++;
+            }
+            return new Postings(ids, weights);
+        }
+    }
+}
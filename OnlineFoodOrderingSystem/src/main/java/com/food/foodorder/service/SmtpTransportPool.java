@@ -0,0 +1,298 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import com.food.foodorder.dto.MailMetricsResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Keeps a few authenticated SMTP connections open and sends queued
+ * messages over them in batches.
+ *
+ * {@code JavaMailSender.send} connects, does STARTTLS and AUTH, sends one
+ * message and hangs up. Here each connection has its own sender thread that
+ * takes whatever is queued (up to a batch) and sends it back to back on the
+ * same session, so a burst of status emails costs one handshake per
+ * connection instead of one per message. A connection left idle is closed
+ * and reopened on the next message; a broken one is dropped and reopened.
+ *
+ * {@link #send} waits for the result, so callers (the email outbox) still
+ * see every failure and can retry it. Host, port and credentials come from
+ * the regular {@code spring.mail.*} settings.
+ */
+@Service
+public class SmtpTransportPool {
+
+    // Longest a caller waits for its message (queue + send)
+    private static final long SEND_WAIT_SECONDS = 60;
+
+    private final JavaMailSenderImpl mailSender;
+    private final int connections;
+    private final int batchSize;
+    private final long idleTimeoutMillis;
+
+    private final BlockingQueue<Pending> queue;
+    private final List<Thread> senders = new ArrayList<>();
+    private volatile boolean running;
+
+    // Metrics
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxSendNanos = new LongAccumulator(Math::max, 0);
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.mail.pool.connections:2}") int connections,
+                             @Value("${app.mail.pool.batch-size:20}") int batchSize,
+                             @Value("${app.mail.pool.idle-timeout-ms:60000}") long idleTimeoutMillis,
+                             @Value("${app.mail.pool.queue-capacity:500}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.connections = Math.max(1, connections);
+        this.batchSize = Math.max(1, batchSize);
+        this.idleTimeoutMillis = Math.max(1000, idleTimeoutMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 1; i <= connections; i++) {
+            Thread thread = new Thread(this::work, "smtp-sender-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            senders.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        senders.forEach(Thread::interrupt);
+        Pending left;
+        while ((left = queue.poll()) != null) {
+            left.result.completeExceptionally(new MailSendException("Mail sender stopped"));
+        }
+    }
+
+    // ======================================================
+    // SEND
+    // ======================================================
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    public void send(SimpleMailMessage message) {
+        MimeMessage mime = mailSender.createMimeMessage();
+        message.copyTo(new MimeMailMessage(mime));
+        send(mime);
+    }
+
+    /**
+     * Queue the message for the next free connection and wait until it is sent (or failed).
+     */
+    public void send(MimeMessage message) {
+
+        Pending pending = new Pending(message);
+        if (!queue.offer(pending)) {
+            failed.increment();
+            throw new MailSendException("Mail queue is full");
+        }
+
+        try {
+            await(pending, SEND_WAIT_SECONDS);
+        } catch (TimeoutException e) {
+            // A failure here gets retried by the caller, so the message must not also go out late
+            if (pending.claimed.compareAndSet(false, true)) {
+                pending.result.cancel(false);
+                throw new MailSendException("Timed out waiting for the mail server");
+            }
+            // Already on the wire: the SMTP socket timeouts bound how long this takes
+            awaitUninterruptibly(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.claimed.compareAndSet(false, true)) {
+                pending.result.cancel(false);
+                throw new MailSendException("Interrupted while sending mail");
+            }
+            awaitUninterruptibly(pending);
+        }
+    }
+
+    private static void await(Pending pending, long seconds) throws TimeoutException, InterruptedException {
+        try {
+            pending.result.get(seconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MailSendException("Mail could not be sent", e.getCause());
+        }
+    }
+
+    private static void awaitUninterruptibly(Pending pending) {
+        try {
+            pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MailSendException("Mail could not be sent", e.getCause());
+        }
+    }
+
+    public MailMetricsResponse metrics() {
+        long sentCount = sent.sum();
+        long failedCount = failed.sum();
+        long batchCount = batches.sum();
+        return new MailMetricsResponse(
+                sentCount,
+                failedCount,
+                queue.size(),
+                connections,
+                connects.sum(),
+                batchCount,
+                batchCount > 0 ? (double) (sentCount + failedCount) / batchCount : 0,
+                sentCount > 0 ? sendNanos.sum() / 1_000_000.0 / sentCount : 0,
+                maxSendNanos.get() / 1_000_000.0,
+                sentCount + failedCount > 0 ? waitNanos.sum() / 1_000_000.0 / (sentCount + failedCount) : 0);
+    }
+
+    // ======================================================
+    // SENDER THREADS (one connection each)
+    // ======================================================
+
+    private void work() {
+
+        Transport transport = null;
+        List<Pending> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                Pending first = queue.poll(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // Idle: don't keep the server's connection slot
+                    transport = close(transport);
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            batches.increment();
+
+            for (Pending pending : batch) {
+                transport = deliver(transport, pending);
+            }
+            batch.clear();
+        }
+        close(transport);
+    }
+
+    private Transport deliver(Transport transport, Pending pending) {
+
+        // Claimed first by a caller that gave up waiting: it was reported as failed, so don't send it
+        if (!pending.claimed.compareAndSet(false, true)) {
+            return transport;
+        }
+
+        long start = System.nanoTime();
+        waitNanos.add(start - pending.queuedAt);
+        try {
+            if (transport == null || !transport.isConnected()) {
+                close(transport);
+                transport = connect();
+            }
+
+            MimeMessage message = pending.message;
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+
+            long took = System.nanoTime() - start;
+            sent.increment();
+            sendNanos.add(took);
+            maxSendNanos.accumulate(took);
+            pending.result.complete(null);
+            return transport;
+
+        } catch (MessagingException | RuntimeException e) {
+            failed.increment();
+            pending.result.completeExceptionally(new MailSendException("Mail could not be sent: " + e.getMessage(), e));
+            // Rejected recipient: the session is fine. Anything else: start the next message on a new one
+            return transport != null && isConnected(transport) ? transport : close(transport);
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        // Same protocol lookup as JavaMailSenderImpl: explicit, then session property, then smtp
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        }
+        Transport transport = mailSender.getSession().getTransport(protocol != null ? protocol : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connects.increment();
+        return transport;
+    }
+
+    private static boolean isConnected(Transport transport) {
+        try {
+            return transport.isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+            }
+        }
+        return null;
+    }
+
+    private static final class Pending {
+        final MimeMessage message;
+        final long queuedAt = System.nanoTime();
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        // Set once by whoever gets there first: the sender (sending) or the caller (giving up)
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Pending(MimeMessage message) {
+            this.message = message;
+        }
+    }
+}
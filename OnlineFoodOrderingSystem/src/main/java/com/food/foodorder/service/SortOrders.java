@@ -0,0 +1,276 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.food.foodorder.dto.CatalogSort;
+
+/**
+ * Precomputed id permutations for the listing orders that need catalog-wide
+ * data (price, units sold, newest first).
+ *
+ * Every order is reduced to an ascending (primary, secondary) key pair, so one
+ * comparator and one binary search serve all of them: PRICE_DESC is (-price, -id),
+ * POPULARITY is (-sold, id), and so on. A page is a binary search for the
+ * cursor position plus an array slice.
+ *
+ * Patches only touch the permutations whose keys moved (a stock change moves
+ * none, a sale only POPULARITY) and locate each changed id by binary search,
+ * so a patch is a few array copies plus O(k log n) key lookups.
+ */
+final class SortOrders {
+
+    static final List<CatalogSort> SORTS =
+            List.of(CatalogSort.PRICE_ASC, CatalogSort.PRICE_DESC, CatalogSort.POPULARITY, CatalogSort.NEWEST);
+
+    private static final List<CatalogSort> PRICE_SORTS = List.of(CatalogSort.PRICE_ASC, CatalogSort.PRICE_DESC);
+
+    static final SortOrders EMPTY = build(List.of(), null);
+
+    private final Map<CatalogSort, long[]> orders;
+
+    private SortOrders(Map<CatalogSort, long[]> orders) {
+        this.orders = orders;
+    }
+
+    static SortOrders build(Collection<Long> ids, Keys keys) {
+        Map<CatalogSort, long[]> orders = new EnumMap<>(CatalogSort.class);
+        for (CatalogSort sort : SORTS) {
+            orders.put(sort, sorted(ids, sort, keys));
+        }
+        return new SortOrders(orders);
+    }
+
+    boolean isEmpty() {
+        return orders.get(CatalogSort.NEWEST).length == 0;
+    }
+
+    // ======================================================
+    // QUERY
+    // ======================================================
+
+    /**
+     * Up to {@code limit} ids in {@code sort} order, starting right after the cursor
+     * position (value + id), or from the top when {@code cursor} is null.
+     */
+    List<Long> slice(CatalogSort sort, CatalogCursor cursor, int limit, Keys keys) {
+
+        long[] ids = orders.get(sort);
+        int from = 0;
+
+        if (cursor != null) {
+            from = after(ids, 0, sort, cursorPrimary(sort, cursor), secondary(sort, cursor.lastId), keys);
+        }
+
+        int to = Math.min(ids.length, from + limit);
+        List<Long> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+
+    // ======================================================
+    // PATCH
+    // ======================================================
+
+    /**
+     * New permutations with each sort's leaving ids taken out (found through the
+     * keys they were sorted by) and its entering ids put in where {@code newKeys}
+     * place them. Sorts without changes keep sharing their array.
+     */
+    SortOrders withChanges(Changes changes, Keys oldKeys, Keys newKeys) {
+
+        if (changes.isEmpty()) {
+            return this;
+        }
+
+        Map<CatalogSort, long[]> patched = new EnumMap<>(orders);
+        for (CatalogSort sort : SORTS) {
+            List<Long> leaving = changes.leaving.getOrDefault(sort, List.of());
+            List<Long> entering = changes.entering.getOrDefault(sort, List.of());
+            if (!leaving.isEmpty() || !entering.isEmpty()) {
+                patched.put(sort, insert(remove(orders.get(sort), sort, leaving, oldKeys), sort, entering, newKeys));
+            }
+        }
+        return new SortOrders(patched);
+    }
+
+    /**
+     * The sorts an existing id has to move in when its keys go from {@code before} to {@code after}.
+     */
+    static List<CatalogSort> moved(long id, Keys before, Keys after) {
+        boolean price = Double.compare(before.price(id), after.price(id)) != 0;
+        boolean sold = before.unitsSold(id) != after.unitsSold(id);
+        if (price && sold) {
+            return List.of(CatalogSort.PRICE_ASC, CatalogSort.PRICE_DESC, CatalogSort.POPULARITY);
+        }
+        return price ? PRICE_SORTS : sold ? List.of(CatalogSort.POPULARITY) : List.of();
+    }
+
+    /**
+     * Ids leaving and (re-)entering each permutation in one patch.
+     */
+    static final class Changes {
+
+        private final Map<CatalogSort, List<Long>> leaving = new EnumMap<>(CatalogSort.class);
+        private final Map<CatalogSort, List<Long>> entering = new EnumMap<>(CatalogSort.class);
+
+        void leave(Collection<CatalogSort> sorts, long id) {
+            for (CatalogSort sort : sorts) {
+                leaving.computeIfAbsent(sort, k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        void enter(Collection<CatalogSort> sorts, long id) {
+            for (CatalogSort sort : sorts) {
+                entering.computeIfAbsent(sort, k -> new ArrayList<>()).add(id);
+            }
+        }
+
+        void move(Collection<CatalogSort> sorts, long id) {
+            leave(sorts, id);
+            enter(sorts, id);
+        }
+
+        boolean isEmpty() {
+            return leaving.isEmpty() && entering.isEmpty();
+        }
+    }
+
+    private static long[] remove(long[] current, CatalogSort sort, List<Long> ids, Keys keys) {
+
+        if (ids.isEmpty()) {
+            return current;
+        }
+        int[] positions = new int[ids.size()];
+        int count = 0;
+        for (long id : ids) {
+            int pos = indexOf(current, sort, id, keys);
+            if (pos >= 0) {
+                positions[count++] = pos;
+            }
+        }
+        if (count == 0) {
+            return current;
+        }
+        Arrays.sort(positions, 0, count);
+
+        long[] result = new long[current.length - count];
+        int from = 0;
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int pos = positions[i];
+            System.arraycopy(current, from, result, n, pos - from);
+            n += pos - from;
+            from = pos + 1;
+        }
+        System.arraycopy(current, from, result, n, current.length - from);
+        return result;
+    }
+
+    private static long[] insert(long[] current, CatalogSort sort, List<Long> ids, Keys keys) {
+
+        if (ids.isEmpty()) {
+            return current;
+        }
+        long[] added = sorted(ids, sort, keys);
+
+        long[] result = new long[current.length + added.length];
+        int from = 0;
+        int n = 0;
+        for (long id : added) {
+            int pos = after(current, from, sort, primary(sort, id, keys), secondary(sort, id), keys);
+            System.arraycopy(current, from, result, n, pos - from);
+            n += pos - from;
+            from = pos;
+            result[n++] = id;
+        }
+        System.arraycopy(current, from, result, n, current.length - from);
+        return result;
+    }
+
+    // First position at or after {@code from} whose key is strictly greater than (primary, secondary)
+    private static int after(long[] ids, int from, CatalogSort sort, double primary, long secondary, Keys keys) {
+        int lo = from;
+        int hi = ids.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(primary(sort, ids[mid], keys), secondary(sort, ids[mid]), primary, secondary) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Position of {@code id} in a permutation sorted by {@code keys}, or -1 (the secondary key makes it unique)
+    private static int indexOf(long[] ids, CatalogSort sort, long id, Keys keys) {
+        int pos = after(ids, 0, sort, primary(sort, id, keys), secondary(sort, id), keys) - 1;
+        return pos >= 0 && ids[pos] == id ? pos : -1;
+    }
+
+    // ======================================================
+    // KEYS
+    // ======================================================
+
+    /**
+     * Current sort inputs for a product id.
+     */
+    interface Keys {
+
+        double price(long id);
+
+        long unitsSold(long id);
+    }
+
+    // Keys are looked up once per id, not once per comparison
+    private static long[] sorted(Collection<Long> ids, CatalogSort sort, Keys keys) {
+        SortKey[] entries = new SortKey[ids.size()];
+        int n = 0;
+        for (long id : ids) {
+            entries[n++] = new SortKey(id, primary(sort, id, keys), secondary(sort, id));
+        }
+        Arrays.sort(entries, (a, b) -> compare(a.primary, a.secondary, b.primary, b.secondary));
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = entries[i].id;
+        }
+        return result;
+    }
+
+    private record SortKey(long id, double primary, long secondary) {
+    }
+
+    private static int compare(double primaryA, long secondaryA, double primaryB, long secondaryB) {
+        int byPrimary = Double.compare(primaryA, primaryB);
+        return byPrimary != 0 ? byPrimary : Long.compare(secondaryA, secondaryB);
+    }
+
+    private static double primary(CatalogSort sort, long id, Keys keys) {
+        return switch (sort) {
+            case PRICE_ASC -> keys.price(id);
+            case PRICE_DESC -> -keys.price(id);
+            case POPULARITY -> -keys.unitsSold(id);
+            default -> 0;
+        };
+    }
+
+    private static long secondary(CatalogSort sort, long id) {
+        return sort == CatalogSort.PRICE_DESC || sort == CatalogSort.NEWEST ? -id : id;
+    }
+
+    private static double cursorPrimary(CatalogSort sort, CatalogCursor cursor) {
+        return switch (sort) {
+            case PRICE_ASC -> cursor.lastDouble();
+            case PRICE_DESC -> -cursor.lastDouble();
+            case POPULARITY -> -cursor.lastLong();
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,241 @@
+package com.food.foodorder.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.food.foodorder.dto.LedgerEntryResponse;
+import com.food.foodorder.entity.StockMovement;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Append-only history of every stock movement: one signed row per product
+ * in {@code inventory_ledger}, written in the transaction that moves the
+ * stock.
+ *
+ * Rows are only ever inserted, so recording a movement takes no row locks.
+ * Stock at a point in time is the product's latest snapshot at or before it
+ * plus the entries after that snapshot. A scheduled compaction folds new
+ * entries into {@code inventory_ledger_snapshots}, so a lookup reads one
+ * snapshot row and a short tail, never the whole history.
+ *
+ * A snapshot covers entries by id (up to {@code through_id}), not by time:
+ * an entry that commits long after its {@code created_at} still lands
+ * either in a snapshot or in the tail after it.
+ */
+@Service
+@DependsOn({ "entityManagerFactory", "inventorySlots" })
+public class StockLedger {
+
+    static final int MAX_ENTRIES = 500;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockLedger(NamedParameterJdbcTemplate jdbc, TransactionTemplate transactionTemplate) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS inventory_ledger ("
+                + "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                + "food_id BIGINT NOT NULL, "
+                + "delta BIGINT NOT NULL, "
+                + "reason VARCHAR(20) NOT NULL, "
+                + "created_at DATETIME(3) NOT NULL, "
+                + "INDEX idx_ledger_food_time (food_id, created_at), "
+                + "INDEX idx_ledger_time (created_at))");
+        jdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS inventory_ledger_snapshots ("
+                + "food_id BIGINT NOT NULL, "
+                + "as_of DATETIME(3) NOT NULL, "
+                + "through_id BIGINT NOT NULL, "
+                + "stock BIGINT NOT NULL, "
+                + "PRIMARY KEY (food_id, as_of), "
+                + "INDEX idx_ledger_snapshot_time (as_of))");
+
+        // Snapshots from before through_id were cut by time: drop them (they are rebuilt from the ledger)
+        Integer throughColumn = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() "
+                        + "AND table_name = 'inventory_ledger_snapshots' AND column_name = 'through_id'",
+                Map.of(), Integer.class);
+        if (throughColumn != null && throughColumn == 0) {
+            jdbc.getJdbcTemplate().execute("DELETE FROM inventory_ledger_snapshots");
+            jdbc.getJdbcTemplate().execute("ALTER TABLE inventory_ledger_snapshots ADD COLUMN through_id BIGINT NOT NULL DEFAULT 0");
+        }
+
+        // New ledger: open it with the stock already on hand
+        Integer entries = jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM inventory_ledger LIMIT 1) t",
+                Map.of(), Integer.class);
+        if (entries != null && entries == 0) {
+            int opened = jdbc.update("INSERT INTO inventory_ledger (food_id, delta, reason, created_at) "
+                            + "SELECT food_id, SUM(stock), :reason, :now FROM inventory_slots GROUP BY food_id",
+                    new MapSqlParameterSource()
+                            .addValue("reason", StockMovement.OPENING.name())
+                            .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+            System.out.println("✅ Inventory ledger opened for " + opened + " products");
+        }
+    }
+
+    // ======================================================
+    // WRITE
+    // ======================================================
+
+    /**
+     * Append one entry per non-zero delta (foodId → signed quantity) in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Map<Long, Long> deltas, StockMovement reason) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SqlParameterSource> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((foodId, delta) -> {
+            if (delta != 0) {
+                rows.add(new MapSqlParameterSource()
+                        .addValue("foodId", foodId)
+                        .addValue("delta", delta)
+                        .addValue("reason", reason.name())
+                        .addValue("createdAt", now));
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("INSERT INTO inventory_ledger (food_id, delta, reason, created_at) "
+                        + "VALUES (:foodId, :delta, :reason, :createdAt)",
+                rows.toArray(new SqlParameterSource[0]));
+    }
+
+    // ======================================================
+    // READ
+    // ======================================================
+
+    /**
+     * Stock of a product as of {@code at} (null = now): latest snapshot plus the entries after it.
+     */
+    public long stockAt(Long foodId, LocalDateTime at) {
+
+        Timestamp until = Timestamp.valueOf(at != null ? at : LocalDateTime.now());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("foodId", foodId)
+                .addValue("until", until);
+
+        // {throughId, stock}
+        List<long[]> snapshot = jdbc.query(
+                "SELECT through_id, stock FROM inventory_ledger_snapshots WHERE food_id = :foodId AND as_of <= :until "
+                        + "ORDER BY as_of DESC LIMIT 1",
+                params,
+                (rs, n) -> new long[] { rs.getLong(1), rs.getLong(2) });
+
+        long stock = 0;
+        String after = "";
+        if (!snapshot.isEmpty()) {
+            stock = snapshot.get(0)[1];
+            params.addValue("throughId", snapshot.get(0)[0]);
+            after = "AND id > :throughId ";
+        }
+
+        Long tail = jdbc.queryForObject(
+                "SELECT COALESCE(SUM(delta), 0) FROM inventory_ledger WHERE food_id = :foodId "
+                        + after + "AND created_at <= :until",
+                params, Long.class);
+        return stock + (tail != null ? tail : 0);
+    }
+
+    /**
+     * Most recent movements of a product, newest first.
+     */
+    public List<LedgerEntryResponse> recentEntries(Long foodId, int limit) {
+        return jdbc.query(
+                "SELECT id, delta, reason, created_at FROM inventory_ledger WHERE food_id = :foodId "
+                        + "ORDER BY created_at DESC, id DESC LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("foodId", foodId)
+                        .addValue("limit", Math.max(1, Math.min(limit, MAX_ENTRIES))),
+                (rs, n) -> new LedgerEntryResponse(rs.getLong("id"), rs.getLong("delta"),
+                        rs.getString("reason"), rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    // ======================================================
+    // COMPACTION
+    // ======================================================
+
+    /**
+     * Snapshot every product that moved since the last run, covering entries up to
+     * the highest id written so far.
+     */
+    @Scheduled(
+            initialDelayString = "${app.inventory.ledger.compaction-interval-ms:900000}",
+            fixedDelayString = "${app.inventory.ledger.compaction-interval-ms:900000}"
+    )
+    public void compact() {
+
+        Long[] compacted = transactionTemplate.execute(status -> {
+
+            Long from = jdbc.queryForObject("SELECT MAX(through_id) FROM inventory_ledger_snapshots",
+                    Map.of(), Long.class);
+            Long through = jdbc.queryForObject("SELECT MAX(id) FROM inventory_ledger", Map.of(), Long.class);
+            if (through == null || (from != null && through <= from)) {
+                return null;
+            }
+
+            // Locking read: entries in the range still being written are waited for, not skipped
+            MapSqlParameterSource window = new MapSqlParameterSource()
+                    .addValue("from", from != null ? from : 0L)
+                    .addValue("through", through);
+            Map<Long, Long> moved = new HashMap<>();
+            jdbc.query("SELECT food_id, SUM(delta) FROM inventory_ledger WHERE id > :from AND id <= :through "
+                            + "GROUP BY food_id LOCK IN SHARE MODE",
+                    window,
+                    rs -> {
+                        moved.put(rs.getLong(1), rs.getLong(2));
+                    });
+            if (moved.isEmpty()) {
+                return null;
+            }
+
+            Map<Long, Long> previous = new HashMap<>();
+            jdbc.query("SELECT s.food_id, s.stock FROM inventory_ledger_snapshots s "
+                            + "JOIN (SELECT food_id, MAX(as_of) AS as_of FROM inventory_ledger_snapshots "
+                            + "WHERE food_id IN (:ids) GROUP BY food_id) latest "
+                            + "ON s.food_id = latest.food_id AND s.as_of = latest.as_of",
+                    Map.of("ids", moved.keySet()),
+                    rs -> {
+                        previous.put(rs.getLong(1), rs.getLong(2));
+                    });
+
+            // Every covered entry has committed by now, so none was created after as_of
+            Timestamp asOf = Timestamp.valueOf(LocalDateTime.now());
+            List<SqlParameterSource> rows = new ArrayList<>(moved.size());
+            moved.forEach((foodId, delta) -> rows.add(new MapSqlParameterSource()
+                    .addValue("foodId", foodId)
+                    .addValue("asOf", asOf)
+                    .addValue("through", through)
+                    .addValue("stock", previous.getOrDefault(foodId, 0L) + delta)));
+            jdbc.batchUpdate("INSERT INTO inventory_ledger_snapshots (food_id, as_of, through_id, stock) "
+                            + "VALUES (:foodId, :asOf, :through, :stock)",
+                    rows.toArray(new SqlParameterSource[0]));
+            return new Long[] { (long) rows.size(), through };
+        });
+
+        if (compacted != null) {
+            System.out.println("📒 Inventory ledger compacted: " + compacted[0] + " products through entry #" + compacted[1]);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.food.foodorder.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.food.foodorder.dto.SuggestionResponse;
+import com.food.foodorder.entity.Food;
+
+/**
+ * Frozen prefix trie for search-box autocomplete.
+ *
+ * Every product name and category is reachable from the start of each of its
+ * words, so "ket" finds "Tomato Ketchup". Each node stores the ids of its
+ * top-K suggestions by popularity, precomputed at build time, so a lookup is
+ * one walk down the prefix plus a copy of at most K shared response objects.
+ * Children are kept in sorted char arrays instead of maps to stay compact.
+ */
+final class SuggestionTrie {
+
+    static final int MAX_SUGGESTIONS = 8;
+
+    // Prefixes longer than this reuse the deepest node's suggestions
+    private static final int MAX_DEPTH = 24;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    private final SuggestionResponse[] suggestions;
+
+    private SuggestionTrie(Node root, SuggestionResponse[] suggestions) {
+        this.root = root;
+        this.suggestions = suggestions;
+    }
+
+    /**
+     * @param unitsSold popularity per product id (units ordered)
+     */
+    static SuggestionTrie build(Collection<Food> foods, Map<Long, Long> unitsSold) {
+
+        List<SuggestionResponse> entries = new ArrayList<>();
+        List<Long> scores = new ArrayList<>();
+
+        // Categories rank by the combined popularity of their products
+        Map<String, long[]> categories = new TreeMap<>();
+        Map<String, String> categoryLabels = new TreeMap<>();
+
+        for (Food food : foods) {
+            long sold = unitsSold.getOrDefault(food.getId(), 0L);
+            if (food.getName() != null && !food.getName().isBlank()) {
+                entries.add(new SuggestionResponse(food.getName().trim(), "PRODUCT", food.getId(), food.getImageUrl()));
+                scores.add(sold);
+            }
+            String key = CatalogSnapshot.categoryKey(food.getCategory());
+            if (!key.isEmpty()) {
+                categories.computeIfAbsent(key, k -> new long[1])[0] += sold;
+                categoryLabels.putIfAbsent(key, food.getCategory().trim());
+            }
+        }
+        categories.forEach((key, sold) -> {
+            entries.add(new SuggestionResponse(categoryLabels.get(key), "CATEGORY", null, null));
+            scores.add(sold[0]);
+        });
+
+        long[] score = new long[scores.size()];
+        for (int i = 0; i < score.length; i++) {
+            score[i] = scores.get(i);
+        }
+
+        Builder root = new Builder();
+        for (int i = 0; i < entries.size(); i++) {
+            String text = entries.get(i).getText().toLowerCase(Locale.ROOT);
+            for (int start = 0; start < text.length(); start++) {
+                boolean wordStart = Character.isLetterOrDigit(text.charAt(start))
+                        && (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)));
+                if (wordStart) {
+                    root.insert(text, start, i, score);
+                }
+            }
+        }
+
+        return new SuggestionTrie(root.freeze(), entries.toArray(new SuggestionResponse[0]));
+    }
+
+    /**
+     * Most popular suggestions starting with {@code prefix} (at any word boundary).
+     */
+    List<SuggestionResponse> suggest(String prefix, int limit) {
+
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length() && i < MAX_DEPTH; i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return List.of();
+            }
+        }
+
+        int n = Math.min(limit, node.top.length);
+        List<SuggestionResponse> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            SuggestionResponse s = suggestions[node.top[i]];
+            // Past MAX_DEPTH the node is only a candidate set; confirm the full prefix
+            if (key.length() <= MAX_DEPTH || s.getText().toLowerCase(Locale.ROOT).contains(key)) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    // ======================================================
+    // NODES
+    // ======================================================
+
+    private static final class Node {
+
+        final char[] keys;
+        final Node[] children;
+        final int[] top;
+
+        Node(char[] keys, Node[] children, int[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+    }
+
+    // Mutable build-time node, discarded after freeze()
+    private static final class Builder {
+
+        final TreeMap<Character, Builder> children = new TreeMap<>();
+        int[] top = new int[0];
+
+        void insert(String text, int start, int entry, long[] score) {
+            Builder node = this;
+            int end = Math.min(text.length(), start + MAX_DEPTH);
+            for (int i = start; i < end; i++) {
+                node = node.children.computeIfAbsent(text.charAt(i), c -> new Builder());
+                node.offer(entry, score);
+            }
+        }
+
+        // Keep the K best entries, highest score first (ties: earlier entry)
+        void offer(int entry, long[] score) {
+            for (int existing : top) {
+                if (existing == entry) {
+                    return;
+                }
+            }
+            int pos = 0;
+            while (pos < top.length && score[top[pos]] >= score[entry]) {
+                pos++;
+            }
+            if (pos >= MAX_SUGGESTIONS) {
+                return;
+            }
+            int size = Math.min(top.length + 1, MAX_SUGGESTIONS);
+            int[] next = new int[size];
+            System.arraycopy(top, 0, next, 0, pos);
+            next[pos] = entry;
+            System.arraycopy(top, pos, next, pos + 1, size - pos - 1);
+            top = next;
+        }
+
+        Node freeze() {
+            if (children.isEmpty()) {
+                return new Node(NO_KEYS, NO_CHILDREN, top);
+            }
+            char[] keys = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> e : children.entrySet()) {
+                keys[i] = e.getKey();
+                frozen[i] = e.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, frozen, top);
+        }
+    }
+}
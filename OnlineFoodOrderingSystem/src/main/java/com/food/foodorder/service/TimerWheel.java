@@ -0,0 +1,98 @@
+package com.food.foodorder.service;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel: a ring of buckets, one advanced per tick by a single
+ * thread.
+ *
+ * Scheduling drops the item into the bucket of its deadline tick (O(1)), and
+ * a tick only looks at its own bucket, so expiring items never scans
+ * everything that is pending. Items more than one turn away simply stay in
+ * their bucket until their round comes. There is no cancel: the callback
+ * decides whether an item still matters when it fires.
+ */
+final class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final Queue<Entry<T>>[] buckets;
+    private final Consumer<T> onExpire;
+    private final ScheduledExecutorService ticker;
+    private final long startMillis;
+
+    // Next tick to process; written by the ticker thread only
+    private volatile long tick;
+
+    TimerWheel(String name, long tickMillis, int size, Consumer<T> onExpire) {
+        this.tickMillis = tickMillis;
+        this.onExpire = onExpire;
+        // Generic arrays can't be created directly; every slot is filled with a Queue<Entry<T>> below
+        @SuppressWarnings("unchecked")
+        Queue<Entry<T>>[] ring = (Queue<Entry<T>>[]) new Queue<?>[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.buckets = ring;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    void start() {
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Fire {@code item} once {@code deadlineMillis} (epoch millis) has passed, at tick granularity.
+     */
+    void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        long target = Math.max(deadlineTick, tick + 1);
+        buckets[(int) (target % buckets.length)].add(new Entry<>(item, deadlineMillis));
+    }
+
+    private void advance() {
+        Queue<Entry<T>> bucket = buckets[(int) (tick % buckets.length)];
+        tick++;
+
+        long now = System.currentTimeMillis();
+        Iterator<Entry<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Entry<T> entry = it.next();
+            // Due within this tick, or a later round of the wheel
+            if (entry.deadlineMillis > now + tickMillis) {
+                continue;
+            }
+            it.remove();
+            try {
+                onExpire.accept(entry.item);
+            } catch (RuntimeException e) {
+                // An exception would cancel the ticker; log and move on
+                System.out.println("❌ Timer callback failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long deadlineMillis;
+
+        Entry(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
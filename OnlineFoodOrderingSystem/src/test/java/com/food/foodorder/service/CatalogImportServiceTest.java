@@ -0,0 +1,143 @@
+package com.food.foodorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.foodorder.dto.ImportReport;
+import com.food.foodorder.entity.IdGenerators;
+import com.food.foodorder.entity.StockMovement;
+
+/**
+ * Importer against an in-memory database; stock and the catalog are stubbed.
+ */
+class CatalogImportServiceTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private FoodService foodService;
+    private InventoryService inventoryService;
+    private CatalogImportService importer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+
+        jdbc.getJdbcTemplate().execute("CREATE TABLE foods (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                + "description VARCHAR(1000), price DOUBLE, category VARCHAR(255), image_url VARCHAR(255), "
+                + "active BOOLEAN, status VARCHAR(30))");
+        jdbc.getJdbcTemplate().execute("CREATE TABLE " + IdGenerators.TABLE + " ("
+                + IdGenerators.SEGMENT_COLUMN + " VARCHAR(255) PRIMARY KEY, " + IdGenerators.VALUE_COLUMN + " BIGINT)");
+        jdbc.getJdbcTemplate().update("INSERT INTO " + IdGenerators.TABLE + " VALUES ('foods', 100)");
+        jdbc.getJdbcTemplate().update("INSERT INTO foods VALUES "
+                + "(1, 'Apple', 'Shimla apples', 120, 'Fruits', '/img/apple.png', FALSE, 'OUT_OF_STOCK')");
+
+        foodService = mock(FoodService.class);
+        inventoryService = mock(InventoryService.class);
+        importer = new CatalogImportService(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                foodService, inventoryService, new ObjectMapper());
+    }
+
+    @Test
+    void priceOnlyFeedLeavesEverythingElseAlone() {
+        ImportReport report = importCsv("name,price\nApple,99.5\n");
+
+        assertEquals(1, report.getUpdated());
+        Map<String, Object> apple = food(1);
+        assertEquals(99.5, ((Number) apple.get("price")).doubleValue());
+        assertEquals("Shimla apples", apple.get("description"));
+        assertEquals("Fruits", apple.get("category"));
+        assertEquals("/img/apple.png", apple.get("image_url"));
+        assertEquals(false, apple.get("active"));
+        assertEquals("OUT_OF_STOCK", apple.get("status"));
+        verify(inventoryService, never()).setStock(anyMap(), any());
+        verify(foodService).reloadCatalog();
+    }
+
+    @Test
+    void emptyCellsKeepTheCurrentValue() {
+        importCsv("name,price,description,category,active,status,stock\nApple,80,,Seasonal,,,\n");
+
+        Map<String, Object> apple = food(1);
+        assertEquals("Seasonal", apple.get("category"));
+        assertEquals("Shimla apples", apple.get("description"));
+        assertEquals(false, apple.get("active"));
+        assertEquals("OUT_OF_STOCK", apple.get("status"));
+        verify(inventoryService, never()).setStock(anyMap(), any());
+    }
+
+    @Test
+    void givenColumnsAndStockAreApplied() {
+        importNdjson("{\"name\":\"Apple\",\"price\":110,\"active\":true,\"status\":\"available\",\"stock\":40}\n");
+
+        Map<String, Object> apple = food(1);
+        assertEquals(true, apple.get("active"));
+        assertEquals("AVAILABLE", apple.get("status"));
+        assertEquals("Shimla apples", apple.get("description"));
+        verify(inventoryService).setStock(Map.of(1L, 40L), StockMovement.IMPORT);
+    }
+
+    @Test
+    void newProductsGetDefaultsAndGeneratorIds() {
+        ImportReport report = importNdjson("{\"name\":\"Milk\",\"price\":30,\"category\":\"Dairy\",\"stock\":5}\n"
+                + "{\"name\":\"Bread\",\"price\":45}\n");
+
+        assertEquals(2, report.getInserted());
+        // Stored value 100 with blocks of 50: ids 51 and 52, and the generator moves past them
+        Map<String, Object> milk = food(51);
+        assertEquals("Milk", milk.get("name"));
+        assertEquals(true, milk.get("active"));
+        assertEquals("AVAILABLE", milk.get("status"));
+        assertEquals("Bread", food(52).get("name"));
+        assertEquals(102L, jdbc.queryForObject("SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE,
+                Map.of(), Long.class));
+        verify(inventoryService).setStock(Map.of(51L, 5L), StockMovement.IMPORT);
+    }
+
+    @Test
+    void badRowsAreReportedAndTheRestImported() {
+        ImportReport report = importCsv("name,price,stock\nApple,abc,\n,10,\nMilk,30,-1\nBread,45,3\n");
+
+        assertEquals(4, report.getProcessed());
+        assertEquals(1, report.getInserted());
+        assertEquals(3, report.getFailed());
+        assertEquals(120.0, ((Number) food(1).get("price")).doubleValue());
+        assertEquals(1, report.getErrors().get(0).row);
+        assertTrue(report.getErrors().get(0).message.startsWith("Invalid number"));
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+
+    private ImportReport importCsv(String feed) {
+        return importer.importFeed(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)), "csv");
+    }
+
+    private ImportReport importNdjson(String feed) {
+        return importer.importFeed(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)), "ndjson");
+    }
+
+    // Column names are case-insensitive in the returned map
+    private Map<String, Object> food(long id) {
+        return jdbc.queryForMap("SELECT * FROM foods WHERE id = :id", Map.of("id", id));
+    }
+}
@@ -0,0 +1,225 @@
+package com.food.foodorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.food.foodorder.dto.OutboxEntryResponse;
+import com.food.foodorder.entity.Order;
+import com.food.foodorder.repository.OrderRepository;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * Outbox against an in-memory database, with EmailService stubbed out.
+ */
+class EmailOutboxTest {
+
+    private static final String RECIPIENT = "customer@grogos.com";
+
+    private NamedParameterJdbcTemplate jdbc;
+    private TransactionTemplate transactionTemplate;
+    private EmailService emailService;
+    private EmailOutbox outbox;
+    private final Order order = new Order();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        order.setId(42L);
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findWithItemsById(anyLong())).thenReturn(Optional.of(order));
+        emailService = mock(EmailService.class);
+
+        // Two attempts, then DEAD
+        outbox = new EmailOutbox(jdbc, orderRepository, emailService, 4, 2, 30);
+        outbox.migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.stop();
+    }
+
+    @Test
+    void committedOrderEmailIsSentOnce() throws Exception {
+        // Slow send: polls running meanwhile find the row leased, not due
+        doAnswer(invocation -> {
+            Thread.sleep(300);
+            return null;
+        }).when(emailService).sendOrderPlacedEmail(any(), any());
+
+        long id = enqueue();
+        for (int i = 0; i < 5; i++) {
+            outbox.poll();
+        }
+
+        Map<String, Object> row = awaitRow(id, r -> "SENT".equals(r.get("state")));
+        assertEquals(1, ((Number) row.get("attempts")).intValue());
+        outbox.poll();
+        verify(emailService, times(1)).sendOrderPlacedEmail(order, RECIPIENT);
+    }
+
+    @Test
+    void rolledBackOrderQueuesNothing() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                outbox.orderPlaced(order, RECIPIENT);
+                status.setRollbackOnly();
+            });
+        } finally {
+            outbox.poll();
+        }
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM email_outbox", Map.of(), Integer.class));
+    }
+
+    @Test
+    void leasedRowIsNotClaimedAgain() throws Exception {
+        long id = enqueueWithoutDispatch();
+        // Another dispatcher holds the lease
+        jdbc.update("UPDATE email_outbox SET attempts = 1, next_attempt_at = :lease WHERE id = :id",
+                Map.of("id", id, "lease", Timestamp.valueOf(LocalDateTime.now().plusMinutes(2))));
+
+        outbox.poll();
+        Thread.sleep(200);
+
+        verify(emailService, times(0)).sendOrderPlacedEmail(any(), any());
+        assertEquals("PENDING", row(id).get("state"));
+    }
+
+    @Test
+    void failedSendIsRetriedWithBackoff() throws Exception {
+        doThrow(new MessagingException("SMTP down"))
+                .doNothing()
+                .when(emailService).sendOrderStatusUpdateEmail(any(), any(), any());
+
+        long id = enqueueStatus("SHIPPED");
+        Map<String, Object> failed = awaitRow(id, r -> r.get("last_error") != null);
+        assertEquals("PENDING", failed.get("state"));
+        assertEquals("SMTP down", failed.get("last_error"));
+        LocalDateTime next = ((Timestamp) failed.get("next_attempt_at")).toLocalDateTime();
+        assertTrue(next.isAfter(LocalDateTime.now().plusSeconds(25)), "retry waits for the backoff");
+
+        // Not due yet
+        outbox.poll();
+        Thread.sleep(200);
+        verify(emailService, times(1)).sendOrderStatusUpdateEmail(order, RECIPIENT, "SHIPPED");
+
+        makeDue(id);
+        outbox.poll();
+        Map<String, Object> sent = awaitRow(id, r -> "SENT".equals(r.get("state")));
+        assertEquals(2, ((Number) sent.get("attempts")).intValue());
+        assertNull(sent.get("last_error"));
+    }
+
+    @Test
+    void lastFailedAttemptIsDeadLetteredUntilRetried() throws Exception {
+        doThrow(new MessagingException("Mailbox unavailable"))
+                .when(emailService).sendOrderPlacedEmail(any(), any());
+
+        long id = enqueue();
+        awaitRow(id, r -> r.get("last_error") != null && "PENDING".equals(r.get("state")));
+        makeDue(id);
+        outbox.poll();
+        awaitRow(id, r -> "DEAD".equals(r.get("state")));
+
+        List<OutboxEntryResponse> dead = outbox.deadLetters();
+        assertEquals(1, dead.size());
+        assertEquals(id, dead.get(0).getId());
+        assertEquals(42L, dead.get(0).getOrderId());
+
+        // Dead rows are left alone by the poll...
+        makeDue(id);
+        outbox.poll();
+        Thread.sleep(200);
+        verify(emailService, times(2)).sendOrderPlacedEmail(order, RECIPIENT);
+
+        // ...until an admin puts them back
+        doNothing().when(emailService).sendOrderPlacedEmail(any(), any());
+        outbox.retry(id);
+        Map<String, Object> sent = awaitRow(id, r -> "SENT".equals(r.get("state")));
+        assertEquals(1, ((Number) sent.get("attempts")).intValue());
+        assertTrue(outbox.deadLetters().isEmpty());
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+
+    private long enqueue() {
+        transactionTemplate.executeWithoutResult(status -> outbox.orderPlaced(order, RECIPIENT));
+        return lastId();
+    }
+
+    private long enqueueStatus(String status) {
+        transactionTemplate.executeWithoutResult(tx -> outbox.statusChanged(order, RECIPIENT, status));
+        return lastId();
+    }
+
+    // Row as a restart would find it: committed, never handed to a dispatcher
+    private long enqueueWithoutDispatch() {
+        jdbc.update("INSERT INTO email_outbox (kind, order_id, recipient, state, next_attempt_at, created_at) "
+                        + "VALUES (:kind, 42, :recipient, 'PENDING', :now, :now)",
+                Map.of("kind", EmailOutbox.ORDER_PLACED, "recipient", RECIPIENT,
+                        "now", Timestamp.valueOf(LocalDateTime.now())));
+        return lastId();
+    }
+
+    private long lastId() {
+        return jdbc.queryForObject("SELECT MAX(id) FROM email_outbox", Map.of(), Long.class);
+    }
+
+    private void makeDue(long id) {
+        jdbc.update("UPDATE email_outbox SET next_attempt_at = :past WHERE id = :id",
+                Map.of("id", id, "past", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1))));
+    }
+
+    // Column names are case-insensitive in the returned map
+    private Map<String, Object> row(long id) {
+        return jdbc.queryForMap("SELECT state, attempts, last_error, next_attempt_at FROM email_outbox WHERE id = :id",
+                Map.of("id", id));
+    }
+
+    private Map<String, Object> awaitRow(long id, Predicate<Map<String, Object>> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Object> row = row(id);
+            if (condition.test(row)) {
+                return row;
+            }
+            Thread.sleep(20);
+        }
+        fail("Outbox row " + id + " never reached the expected state: " + row(id));
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.food.foodorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class EmailTemplatesTest {
+
+    private final EmailTemplates templates = new EmailTemplates();
+
+    @Test
+    void sectionTagsAloneOnTheirLineLeaveNoBlankLines() {
+        templates.compile("t.txt", "Items:\n{{#items}}\n- {{name}}\n{{/items}}\n{{! comment }}\nEnd\n");
+
+        String out = templates.renderFile("t.txt", Map.of("items", List.of(Map.of("name", "Milk"), Map.of("name", "Bread"))));
+
+        assertEquals("Items:\n- Milk\n- Bread\nEnd\n", out);
+    }
+
+    @Test
+    void inlineSectionTagsKeepTheirLine() {
+        templates.compile("t.txt", "Paid: {{#paid}}yes{{/paid}}{{^paid}}no{{/paid}}.\n");
+
+        assertEquals("Paid: yes.\n", templates.renderFile("t.txt", Map.of("paid", true)));
+        assertEquals("Paid: no.\n", templates.renderFile("t.txt", Map.of("paid", false)));
+    }
+
+    @Test
+    void htmlEscapesDoubleMustachesOnly() {
+        templates.compile("t.html", "<p>{{name}}</p>{{{raw}}}");
+        templates.compile("t.txt", "{{name}}");
+
+        Map<String, Object> model = Map.of("name", "Tom & \"Jerry\" <'x'>", "raw", "<b>bold</b>");
+
+        assertEquals("<p>Tom &amp; &quot;Jerry&quot; &lt;&#39;x&#39;&gt;</p><b>bold</b>",
+                templates.renderFile("t.html", model));
+        assertEquals("Tom & \"Jerry\" <'x'>", templates.renderFile("t.txt", model));
+    }
+
+    @Test
+    void invertedSectionShowsForMissingFalseOrEmpty() {
+        templates.compile("t.txt", "{{^items}}none{{/items}}");
+
+        assertEquals("none", templates.renderFile("t.txt", Map.of()));
+        assertEquals("none", templates.renderFile("t.txt", Map.of("items", false)));
+        assertEquals("none", templates.renderFile("t.txt", Map.of("items", List.of())));
+        assertEquals("", templates.renderFile("t.txt", Map.of("items", List.of("a"))));
+    }
+
+    @Test
+    void nestedScopesResolveInnermostFirst() {
+        templates.compile("t.txt",
+                "{{#order}}{{#items}}[{{name}} for {{customer}}{{#tags}} {{.}}{{/tags}}]{{/items}}{{/order}}");
+
+        Map<String, Object> model = Map.of(
+                "customer", "Asha",
+                "name", "outer",
+                "order", Map.of("items", List.of(
+                        Map.of("name", "Milk", "tags", List.of("cold", "fresh")),
+                        Map.of("name", "Bread", "customer", "Ravi"))));
+
+        assertEquals("[Milk for Asha cold fresh][Bread for Ravi]", templates.renderFile("t.txt", model));
+    }
+
+    @Test
+    void missingValuesRenderEmpty() {
+        templates.compile("t.txt", "Hi {{name}}!");
+
+        assertEquals("Hi !", templates.renderFile("t.txt", Map.of()));
+    }
+
+    @Test
+    void brokenTemplatesAreRejected() {
+        assertThrows(IllegalStateException.class, () -> templates.compile("t.txt", "{{#items}}open"));
+        assertThrows(IllegalStateException.class, () -> templates.compile("t.txt", "{{#a}}{{/b}}"));
+        assertThrows(IllegalStateException.class, () -> templates.compile("t.txt", "{{name"));
+    }
+
+    @Test
+    void shippedTemplatesCompileAndRender() throws IOException {
+        templates.compileAll();
+
+        EmailTemplates.RenderedEmail email = templates.render("order-placed", Map.of(
+                "orderId", 42L,
+                "items", List.of(Map.of("name", "Milk <1L>", "quantity", 2, "lineTotal", "60.00")),
+                "total", "60.00"));
+
+        assertTrue(email.getSubject().contains("42"));
+        assertFalse(email.getSubject().contains("\n"));
+        assertTrue(email.getText().contains("Milk <1L> x2"));
+        assertTrue(email.getHtml().contains("Milk &lt;1L&gt;"));
+    }
+}
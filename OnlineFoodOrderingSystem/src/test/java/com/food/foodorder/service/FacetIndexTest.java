@@ -0,0 +1,98 @@
+package com.food.foodorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.food.foodorder.entity.Food;
+
+class FacetIndexTest {
+
+    // ids 1..25; even ids are "Fruits", odd ids "Dairy"
+    private final FacetIndex index = FacetIndex.build(foods(25));
+
+    @Test
+    void pagesWalkEveryMatchOnceInIdOrder() {
+        FacetIndex.Result result = index.filter(Set.of("fruits"), null, null, null);
+
+        List<Long> seen = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            List<Long> page = result.idsAfter(afterId, 5);
+            if (page.isEmpty()) {
+                break;
+            }
+            seen.addAll(page);
+            afterId = page.get(page.size() - 1);
+        }
+
+        assertEquals(List.of(2L, 4L, 6L, 8L, 10L, 12L, 14L, 16L, 18L, 20L, 22L, 24L), seen);
+        assertEquals(12, result.total());
+    }
+
+    @Test
+    void cursorBetweenMatchesStartsAtTheNextOne() {
+        FacetIndex.Result result = index.filter(Set.of(" Fruits "), null, null, null);
+
+        assertEquals(List.of(8L, 10L), result.idsAfter(7, 2));
+    }
+
+    @Test
+    void negativeCursorStartsFromTheBeginning() {
+        FacetIndex.Result result = index.filter(null, null, null, null);
+
+        assertEquals(List.of(1L, 2L, 3L), result.idsAfter(-5, 3));
+    }
+
+    @Test
+    void cursorBeyondTheIdRangeGivesAnEmptyPage() {
+        FacetIndex.Result result = index.filter(null, null, null, null);
+
+        assertTrue(result.idsAfter(Integer.MAX_VALUE, 10).isEmpty());
+        assertTrue(result.idsAfter(Long.MAX_VALUE, 10).isEmpty());
+    }
+
+    @Test
+    void countsIgnoreTheirOwnFacet() {
+        FacetIndex.Result result = index.filter(Set.of("fruits"), null, null, null);
+
+        assertEquals(12L, result.counts().get(FacetIndex.CATEGORY).get("Fruits"));
+        assertEquals(13L, result.counts().get(FacetIndex.CATEGORY).get("Dairy"));
+    }
+
+    @Test
+    void idsBeyondIntRangeAreLeftOutInsteadOfFailing() {
+        List<Food> foods = foods(3);
+        Food huge = foods(1).get(0);
+        huge.setId(Integer.MAX_VALUE + 1L);
+        foods.add(huge);
+
+        FacetIndex withHuge = FacetIndex.build(foods);
+        FacetIndex.Result result = withHuge.filter(null, null, null, null);
+
+        assertEquals(List.of(1L, 2L, 3L), result.idsAfter(0, 10));
+        assertEquals(3, result.total());
+        assertEquals(3, withHuge.withChanges(List.of(huge), List.of(huge)).filter(null, null, null, null).total());
+    }
+
+    private static List<Food> foods(int count) {
+        List<Food> foods = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Food food = new Food();
+            food.setId(id);
+            food.setName("Product " + id);
+            food.setPrice(10);
+            food.setCategory(id % 2 == 0 ? "Fruits" : "Dairy");
+            food.setStatus("AVAILABLE");
+            food.setActive(true);
+            food.setStock(5);
+            foods.add(food);
+        }
+        return foods;
+    }
+}
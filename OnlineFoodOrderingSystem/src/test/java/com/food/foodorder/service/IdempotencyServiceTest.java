@@ -0,0 +1,110 @@
+package com.food.foodorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.foodorder.exception.BadRequestException;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyService service = new IdempotencyService(new ObjectMapper(), 3600, 100);
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void retryWithSameKeyReplaysFirstResponse() {
+        ResponseEntity<Object> first = service.execute("orders.place", "a@x.com", "k1", "addr",
+                HttpStatus.ACCEPTED, this::run);
+        ResponseEntity<Object> retry = service.execute("orders.place", "a@x.com", "k1", "addr",
+                HttpStatus.ACCEPTED, this::run);
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.ACCEPTED, first.getStatusCode());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        assertEquals(HttpStatus.ACCEPTED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertArrayEquals("{\"run\":1}".getBytes(StandardCharsets.UTF_8), (byte[]) retry.getBody());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        service.execute("payment.complete:1", "a@x.com", "k1", "SUCCESS", this::run);
+
+        assertThrows(BadRequestException.class,
+                () -> service.execute("payment.complete:1", "a@x.com", "k1", "FAILED", this::run));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keysAreScopedToCallerAndEndpoint() {
+        service.execute("payment.complete:1", "a@x.com", "k1", "SUCCESS", this::run);
+        service.execute("payment.complete:1", "b@x.com", "k1", "SUCCESS", this::run);
+        service.execute("payment.complete:2", "a@x.com", "k1", "SUCCESS", this::run);
+
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void callsWithoutOwnerOrKeyAlwaysRun() {
+        service.execute("payment.complete:1", null, "k1", "SUCCESS", this::run);
+        ResponseEntity<Object> again = service.execute("payment.complete:1", null, "k1", "SUCCESS", this::run);
+        service.execute("payment.complete:1", "a@x.com", " ", "SUCCESS", this::run);
+        service.execute("payment.complete:1", "a@x.com", null, "SUCCESS", this::run);
+
+        assertEquals(4, runs.get());
+        assertNull(again.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void failedAttemptIsNotKept() {
+        assertThrows(IllegalStateException.class, () -> service.execute("orders.place", "a@x.com", "k1", "addr", () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("Insufficient stock");
+        }));
+
+        ResponseEntity<Object> retry = service.execute("orders.place", "a@x.com", "k1", "addr", this::run);
+
+        assertEquals(2, runs.get());
+        assertEquals(Map.of("run", 2), retry.getBody());
+    }
+
+    @Test
+    void requestWithNothingLeftToCompareReplays() {
+        service.execute("orders.place", "a@x.com", "k1", "addr|7:2,", this::run);
+
+        // The first attempt emptied the cart: the retry cannot be compared, so it gets the order back
+        ResponseEntity<Object> retry = service.execute("orders.place", "a@x.com", "k1", null, this::run);
+
+        assertEquals(1, runs.get());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void shorterTtlIsHonouredPerEntry() throws InterruptedException {
+        service.execute("orders.place", "a@x.com", "k1", "addr", HttpStatus.ACCEPTED, 0, this::run);
+        Thread.sleep(5);
+
+        // The ticket it pointed at is gone: the retry runs again instead of replaying it
+        ResponseEntity<Object> retry = service.execute("orders.place", "a@x.com", "k1", "addr",
+                HttpStatus.ACCEPTED, 0, this::run);
+
+        assertEquals(2, runs.get());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    private Map<String, Integer> run() {
+        return Map.of("run", runs.incrementAndGet());
+    }
+}
@@ -0,0 +1,142 @@
+package com.food.foodorder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Pool against a local GreenMail SMTP server.
+ */
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final List<SmtpTransportPool> pools = new ArrayList<>();
+
+    // Callers block in send(): one thread each
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(SmtpTransportPool::stop);
+        callers.shutdownNow();
+    }
+
+    @Test
+    void queuedMessagesGoOutInBatchesOverOneConnection() throws Exception {
+        SmtpTransportPool pool = pool(ServerSetupTest.SMTP.getPort(), 10);
+
+        // Queue 25 before any sender runs, so the first takes them 10 at a time
+        List<Future<?>> sends = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            String to = "customer" + i + "@grogos.com";
+            sends.add(callers.submit(() -> pool.send(message(to))));
+        }
+        awaitQueued(pool, 25);
+        pool.start();
+        for (Future<?> send : sends) {
+            send.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(25, greenMail.getReceivedMessages().length);
+        assertEquals(25, pool.metrics().getSent());
+        assertEquals(1, pool.metrics().getConnects());
+        assertEquals(3, pool.metrics().getBatches());
+    }
+
+    @Test
+    void rejectedMessageFailsItsCallerOnly() throws Exception {
+        SmtpTransportPool pool = pool(ServerSetupTest.SMTP.getPort(), 10);
+        pool.start();
+
+        MimeMessage noRecipients = pool.createMimeMessage();
+        noRecipients.setSubject("Order update");
+        noRecipients.setText("Your order is on its way");
+        assertThrows(MailSendException.class, () -> pool.send(noRecipients));
+
+        // The connection survives and the next message still goes out
+        pool.send(message("customer@grogos.com"));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(1, pool.metrics().getSent());
+        assertEquals(1, pool.metrics().getFailed());
+    }
+
+    @Test
+    void unreachableServerFailsTheCaller() {
+        SmtpTransportPool pool = pool(ServerSetupTest.SMTP.getPort() + 1, 10);
+        pool.start();
+
+        MailSendException error = assertThrows(MailSendException.class,
+                () -> pool.send(message("customer@grogos.com")));
+
+        assertTrue(error.getMessage().startsWith("Mail could not be sent"), error.getMessage());
+        assertEquals(1, pool.metrics().getFailed());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void stoppingFailsMessagesStillQueued() throws Exception {
+        SmtpTransportPool pool = pool(ServerSetupTest.SMTP.getPort(), 10);
+
+        Future<?> send = callers.submit(() -> pool.send(message("customer@grogos.com")));
+        awaitQueued(pool, 1);
+        pool.stop();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> send.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof MailSendException);
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+
+    // One connection, not started yet
+    private SmtpTransportPool pool(int port, int batchSize) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(port);
+        SmtpTransportPool pool = new SmtpTransportPool(sender, 1, batchSize, 60000, 100);
+        pools.add(pool);
+        return pool;
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@grogos.com");
+        message.setTo(to);
+        message.setSubject("Order update");
+        message.setText("Your order is on its way");
+        return message;
+    }
+
+    private static void awaitQueued(SmtpTransportPool pool, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.metrics().getQueueDepth() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, pool.metrics().getQueueDepth());
+    }
+}
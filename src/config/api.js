@@ -34,6 +34,9 @@ export const API_ENDPOINTS = {
   PROFILE: '/users/profile',
   UPDATE_PROFILE: '/users/profile',
 
+  // 🏠 HOME FEED
+  HOME: '/home',
+
   // 🥬 PRODUCTS / FOODS
   FOODS: '/foods',
   PRODUCTS: '/foods',  // Alias for FOODS
@@ -42,6 +45,9 @@ export const API_ENDPOINTS = {
   FOODS_BY_CATEGORY: '/foods/category/:category',
   PRODUCTS_BY_CATEGORY: '/foods/category/:category',  // Alias
   SEARCH: '/foods/search',
+  SUGGEST: '/foods/suggest',
+  FACETS: '/foods/facets',
+  FOODS_BATCH: '/foods/batch',
 
   // 🛒 CART
   CART: '/cart/my',
@@ -54,6 +60,7 @@ export const API_ENDPOINTS = {
   ORDERS: '/orders',
   ORDER_DETAIL: '/orders/:id',
   PLACE_ORDER: '/orders/place',
+  CHECKOUT_HOLD: '/orders/checkout',
   MY_ORDERS: '/orders/my',
 
   // 💳 PAYMENT
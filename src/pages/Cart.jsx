@@ -1,6 +1,6 @@
 // 🔥 COMPLETE FIXED Cart.jsx - Replace your entire Cart.jsx with this
 
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import { Link, useNavigate } from 'react-router-dom'
 import { FiPlus, FiMinus, FiTrash2, FiShoppingBag, FiTag, FiMapPin, FiCreditCard } from 'react-icons/fi'
 import Header from '../components/Header'
@@ -27,10 +27,33 @@ const Cart = () => {
   const [showCouponInput, setShowCouponInput] = useState(false)
   const [availableCoupons, setAvailableCoupons] = useState([])
 
+  // ✅ One key per order attempt: a retried POST replays the first result instead of ordering twice
+  const idempotencyKey = useRef(null)
+
   useEffect(() => {
     setAvailableCoupons(mockCoupons)
   }, [])
 
+  // ✅ Long-poll a queued order ticket → { id } of the placed order
+  const waitForQueuedOrder = async (ticketId, token) => {
+    for (;;) {
+      const res = await fetch(`${import.meta.env.VITE_API_BASE_URL}/orders/tickets/${ticketId}?waitSeconds=25`, {
+        headers: { 'Authorization': `Bearer ${token}` }
+      })
+      if (!res.ok) {
+        throw new Error(`Order status unavailable: ${res.status}`)
+      }
+      const ticket = await res.json()
+      if (ticket.status === 'PLACED') {
+        return { id: ticket.orderId }
+      }
+      if (ticket.status === 'FAILED') {
+        idempotencyKey.current = null   // the queued attempt is over; a retry is a new order
+        throw new Error(ticket.error || 'Order failed')
+      }
+    }
+  }
+
   // ✅ FIXED: Real API call to Spring Boot backend
   const handlePlaceOrder = async () => {
     // Validation
@@ -59,12 +82,17 @@ const Cart = () => {
       console.log('📤 Placing order to backend...')
       console.log('🛒 Cart items:', cart.items.length)
       
+      if (!idempotencyKey.current) {
+        idempotencyKey.current = crypto.randomUUID()
+      }
+
       // ✅ Call your Spring Boot API
       const response = await fetch(`${import.meta.env.VITE_API_BASE_URL}/orders/place`, {
         method: 'POST',
         headers: {
           'Authorization': `Bearer ${token}`,
-          'Content-Type': 'application/json'
+          'Content-Type': 'application/json',
+          'Idempotency-Key': idempotencyKey.current
         },
         body: JSON.stringify({
           deliveryAddress: address
@@ -86,9 +114,15 @@ const Cart = () => {
         throw new Error(`Order failed: ${response.status}`)
       }
 
-      const order = await response.json()
+      let order = await response.json()
+
+      // ✅ 202 = order queued at peak load: wait on the ticket until it's placed
+      if (response.status === 202) {
+        order = await waitForQueuedOrder(order.ticketId, token)
+      }
       console.log('✅ Order created in database:', order)
       console.log('✅ Order ID:', order.id)
+      idempotencyKey.current = null
 
       // ✅ Clear cart after successful order
       await clearCart()
@@ -11,6 +11,7 @@ import { useAuth } from '../contexts/AuthContext'
 import { formatPrice } from '../utils/helpers'
 import toast from 'react-hot-toast'
 import API from "../api/api"
+import { API_ENDPOINTS } from '../config/api'
 // import {userNavigate} from "react-router-dom"
 
 
@@ -55,6 +56,13 @@ const Checkout = () => {
     }
   }, [cart, addresses, selectedLocation, selectedAddress, navigate])
 
+  // ✅ Hold cart stock while the customer fills in checkout (released on expiry)
+  useEffect(() => {
+    API.post(API_ENDPOINTS.CHECKOUT_HOLD).catch((error) => {
+      toast.error(error.response?.data?.message || 'Some items in your cart are out of stock')
+    })
+  }, [])
+
   const timeSlots = [
     { value: '10-15', label: '10-15 mins', available: true },
     { value: '15-30', label: '15-30 mins', available: true },
@@ -1,4 +1,5 @@
-import { useState, useEffect, useRef } from 'react'
+import { useState, useEffect } from 'react'
+import { useNavigate } from 'react-router-dom'
 import Header from '../components/Header'
 import Footer from '../components/Footer'
 import CategorySlider from '../components/CategorySlider'
@@ -6,19 +7,27 @@ import BannerCarousel from '../components/BannerCarousel'
 import ProductSection from '../components/ProductSection'
 import SkeletonLoader from '../components/SkeletonLoader'
 import API from '../api/api'
+import { API_ENDPOINTS } from '../config/api'
+
+const CATEGORY_ICONS = {
+  Vegetables: '🥦',
+  Fruits: '🍎',
+  Dairy: '🥛',
+  Bakery: '🍞',
+  Beverages: '🥤',
+  Snacks: '🍿',
+}
 
 const Home = () => {
+  const navigate = useNavigate()
   const [categories, setCategories] = useState([])
   const [banners, setBanners] = useState([])
 
-  const [allProducts, setAllProducts] = useState([])
-  const [searchQuery, setSearchQuery] = useState('')
+  // Best sellers only: searching and browsing a category go to the full catalog
+  const [sections, setSections] = useState([])
   const [selectedCategory, setSelectedCategory] = useState('ALL')
   const [loading, setLoading] = useState(true)
 
-  // 🔥 refs for category scroll
-  const sectionRefs = useRef({})
-
   useEffect(() => {
     loadHomeData()
   }, [])
@@ -27,24 +36,21 @@ const Home = () => {
     try {
       setLoading(true)
 
-      const res = await API.get('/foods')
-      setAllProducts(res.data)
+      // One round trip: categories, banners and best sellers per category
+      const { data } = await API.get(API_ENDPOINTS.HOME)
+      setSections(data.sections.filter((section) => section.products.length > 0))
 
       setCategories([
         { id: 0, name: 'All', value: 'ALL', icon: '🛒' },
-        { id: 1, name: 'Vegetables', value: 'Vegetables', icon: '🥦' },
-        { id: 2, name: 'Fruits', value: 'Fruits', icon: '🍎' },
-        { id: 3, name: 'Dairy', value: 'Dairy', icon: '🥛' },
-        { id: 4, name: 'Bakery', value: 'Bakery', icon: '🍞' },
-        { id: 5, name: 'Beverages', value: 'Beverages', icon: '🥤' },
-        { id: 6, name: 'Snacks', value: 'Snacks', icon: '🍿' },
+        ...data.categories.map((category) => ({
+          id: category.id,
+          name: category.name,
+          value: category.name,
+          icon: CATEGORY_ICONS[category.name] || '🛍️',
+        })),
       ])
 
-      setBanners([
-        { id: 1, image: '/mango.jpg', title: 'Fresh Everyday', subtitle: 'Quality assured fruits & vegetables' },
-        { id: 2, image: '/milk.jpg', title: 'Best Deals', subtitle: 'Amazing discounts on grocery items' },
-        { id: 3, image: '/bread.jpg', title: 'Organic Products', subtitle: 'Farm fresh quality guaranteed' },
-      ])
+      setBanners(data.banners)
     } catch (error) {
       console.error('Error loading home data:', error)
     } finally {
@@ -52,7 +58,7 @@ const Home = () => {
     }
   }
 
-  // 🔥 CATEGORY CLICK
+  // 🔥 CATEGORY CLICK: the whole category, not just the best sellers shown here
   const handleCategorySelect = (category) => {
     setSelectedCategory(category)
 
@@ -61,51 +67,13 @@ const Home = () => {
       return
     }
 
-    const section = sectionRefs.current[category]
-    if (section) {
-      section.scrollIntoView({ behavior: 'smooth', block: 'start' })
-    }
+    navigate(`/products/${category.toLowerCase().replace(/\s+/g, '-')}`)
   }
 
-  // =========================
-  // 🔍 SEARCH FILTER (FIXED)
-  // =========================
-  const normalizedQuery = searchQuery.toLowerCase().trim()
-
-  const searchedProducts = normalizedQuery
-    ? allProducts.filter((product) =>
-        product.name?.toLowerCase().includes(normalizedQuery) ||
-        product.category?.toLowerCase().includes(normalizedQuery) ||
-        product.description?.toLowerCase().includes(normalizedQuery)
-      )
-    : allProducts
-
-  // =========================
-  // 🗂 CATEGORY FILTER
-  // =========================
-  const categoryFilteredProducts =
-    selectedCategory === 'ALL'
-      ? searchedProducts
-      : searchedProducts.filter(
-          (product) => product.category === selectedCategory
-        )
-
-  // =========================
-  // 📦 GROUP BY CATEGORY
-  // =========================
-  const productsByCategory = categoryFilteredProducts.reduce((acc, product) => {
-    const category = product.category || 'Others'
-    if (!acc[category]) acc[category] = []
-    acc[category].push(product)
-    return acc
-  }, {})
-
   return (
     <div className="min-h-screen bg-gray-50">
-      <Header
-        searchQuery={searchQuery}
-        setSearchQuery={setSearchQuery}
-      />
+      {/* Header search opens the Search page (/foods/search over the full catalog) */}
+      <Header />
 
       <main>
         {/* Categories */}
@@ -131,8 +99,7 @@ const Home = () => {
           <div className="px-4 py-6">
             <SkeletonLoader variant="productList" />
           </div>
-        ) : Object.keys(productsByCategory).length === 0 ? (
-          // ❌ NO SEARCH RESULTS
+        ) : sections.length === 0 ? (
           <div className="flex flex-col items-center justify-center py-20">
             <img
               src="/no-image.png"
@@ -140,28 +107,15 @@ const Home = () => {
               className="w-48 mb-6"
             />
             <h2 className="text-xl font-bold mb-2">No products found</h2>
-            <p className="text-gray-500 mb-6">
-              We couldn't find any products matching "{searchQuery}"
-            </p>
-            <button
-              onClick={() => setSearchQuery('')}
-              className="bg-primary-600 text-white px-6 py-2 rounded-lg"
-            >
-              Clear Search
-            </button>
           </div>
         ) : (
-          Object.entries(productsByCategory).map(([category, items]) => (
-            <div
-              key={category}
-              ref={(el) => (sectionRefs.current[category] = el)}
-            >
-              <ProductSection
-                title={category}
-                products={items}
-                category={category}
-              />
-            </div>
+          sections.map((section) => (
+            <ProductSection
+              key={section.categoryId}
+              title={section.category}
+              products={section.products}
+              category={section.category}
+            />
           ))
         )}
       </main>
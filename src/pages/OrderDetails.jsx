@@ -1,6 +1,6 @@
 import { useParams, useNavigate } from "react-router-dom"
 import { useEffect, useState } from "react"
-import { FiArrowLeft, FiPackage, FiCalendar, FiMapPin, FiCreditCard } from "react-icons/fi"
+import { FiArrowLeft, FiPackage, FiCalendar, FiMapPin, FiCreditCard, FiDownload } from "react-icons/fi"
 import Header from "../components/Header"
 import Footer from "../components/Footer"
 import { formatPrice } from "../utils/helpers"
@@ -93,6 +93,22 @@ const OrderDetails = () => {
     }
   }
 
+  // ✅ Invoice PDF (needs the auth header, so fetch as blob instead of a plain link)
+  const handleDownloadInvoice = async () => {
+    try {
+      const res = await API.get(`/orders/${id}/invoice`, { responseType: 'blob' })
+      const url = URL.createObjectURL(res.data)
+      const link = document.createElement('a')
+      link.href = url
+      link.download = `GROGOS_Invoice_${id}.pdf`
+      link.click()
+      URL.revokeObjectURL(url)
+    } catch (error) {
+      console.error("Invoice download error:", error)
+      toast.error('Could not download invoice. Please try again.')
+    }
+  }
+
   if (loading) {
     return (
       <div className="min-h-screen bg-gray-50">
@@ -167,6 +183,12 @@ const OrderDetails = () => {
               }`}>
                 {order.status.replace('_', ' ')}
               </span>
+              <button
+                onClick={handleDownloadInvoice}
+                className="ml-3 inline-flex items-center gap-2 px-4 py-2 border rounded-lg text-sm font-medium text-primary-600 hover:bg-primary-50"
+              >
+                <FiDownload /> Invoice
+              </button>
             </div>
           </div>
 
@@ -6,7 +6,6 @@ import Footer from '../components/Footer'
 import ProductCard from '../components/ProductCard'
 import SkeletonLoader from '../components/SkeletonLoader'
 import { productService } from '../services/productService'
-import { mockProducts } from '../utils/mockData'
 import { debounce } from '../utils/helpers'
 import LazyImage from '../components/LazyImage'
 
@@ -43,7 +42,7 @@ const Search = () => {
     try {
       setLoading(true)
       // Call API for search results
-      const data = await productService.searchProducts(searchTerm)
+      const data = await productService.searchProducts(searchTerm, { fuzzy: true })
       setResults(data.products || data || [])
 
       // Add to recent searches
@@ -57,13 +56,22 @@ const Search = () => {
     }
   }
 
-  const debouncedSearch = debounce((term) => {
+  const debouncedSearch = debounce(async (term) => {
     if (term.trim()) {
-      // In real app, fetch suggestions from API
-      const suggestions = mockProducts
-        .filter((p) => p.name.toLowerCase().includes(term.toLowerCase()))
-        .slice(0, 5)
-      setSuggestions(suggestions)
+      try {
+        const data = await productService.suggestProducts(term, 5)
+        setSuggestions(
+          (data || []).map((s) => ({
+            id: s.productId ?? `category-${s.text}`,
+            name: s.text,
+            image: s.imageUrl,
+            quantity: s.type === 'CATEGORY' ? 'Category' : '',
+          }))
+        )
+      } catch (error) {
+        console.error('Suggest error:', error)
+        setSuggestions([])
+      }
     } else {
       setSuggestions([])
     }
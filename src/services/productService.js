@@ -16,6 +16,12 @@ export const productService = {
     return response.data
   },
 
+  // Get many products in one call → { items (in request order), missingIds }
+  getProductsByIds: async (ids) => {
+    const response = await API.post(API_ENDPOINTS.FOODS_BATCH, ids)
+    return response.data
+  },
+
   // Get products by category
   getProductsByCategory: async (category, options = {}) => {
     try {
@@ -203,6 +209,23 @@ export const productService = {
     return response.data
   },
 
+  // Autocomplete suggestions (products + categories, most popular first)
+  suggestProducts: async (prefix, limit = 5) => {
+    const response = await API.get(API_ENDPOINTS.SUGGEST, {
+      params: { prefix, limit },
+    })
+    return response.data
+  },
+
+  // Faceted filter: { category, status, active, inStock, afterId, limit } → items + facet counts
+  filterProducts: async (filters = {}) => {
+    const response = await API.get(API_ENDPOINTS.FACETS, {
+      params: filters,
+      paramsSerializer: { indexes: null },
+    })
+    return response.data
+  },
+
   // Get categories (placeholder - implement if you have a categories endpoint)
   getCategories: async () => {
     // If you have a categories endpoint, use it: